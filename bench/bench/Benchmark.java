@@ -0,0 +1,71 @@
+package bench;
+
+/**
+ * Benchmark - One timed operation for BenchmarkRunner
+ * The runner calls beforeBatch() (not timed), then op() batchSize times
+ * back to back (timed as a whole), and repeats until the iteration time
+ * is used up. Score = nanoseconds per op().
+ */
+public abstract class Benchmark {
+
+	final String name;
+	final String paramName;
+	final String paramValue;
+
+	/**
+	 * @param name Dotted name, e.g. "simulation.update"
+	 * @param paramName Parameter this case varies (null = none)
+	 * @param paramValue Its value for this case
+	 */
+	protected Benchmark(String name, String paramName, String paramValue) {
+		this.name = name;
+		this.paramName = paramName;
+		this.paramValue = paramValue;
+	}
+
+	protected Benchmark(String name) {
+		this(name, null, null);
+	}
+
+	/**
+	 * Build the state the case needs (once, not timed)
+	 *
+	 * @return null if the case can run, otherwise why it was skipped
+	 */
+	protected String setUp() throws Exception {
+		return null;
+	}
+
+	/**
+	 * Put the state back where a batch should start (not timed)
+	 */
+	protected void beforeBatch() {
+	}
+
+	/**
+	 * How many op() calls are timed together
+	 */
+	protected int batchSize() {
+		return 1000;
+	}
+
+	/**
+	 * The measured operation
+	 *
+	 * @return any value derived from the work, so the JIT can't drop it
+	 */
+	protected abstract long op() throws Exception;
+
+	/**
+	 * Release whatever setUp() opened
+	 */
+	protected void tearDown() {
+	}
+
+	/**
+	 * @return the name with its parameter, e.g. "simulation.update[entities=1000]"
+	 */
+	public String label() {
+		return paramName == null ? name : name + "[" + paramName + "=" + paramValue + "]";
+	}
+}
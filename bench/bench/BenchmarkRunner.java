@@ -0,0 +1,155 @@
+package bench;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * BenchmarkRunner - Runs the benchmark suite and writes the results as JSON
+ * A small stand-in for JMH (this tree has no build tool to pull it in):
+ * warm-up iterations, then measured iterations of batched calls, one
+ * thread, no forks. Results are written in JMH's JSON layout (mode
+ * "avgt", ns/op, raw per-iteration scores), so JMH result viewers and
+ * diff scripts can read them and runs can be compared across commits.
+ *
+ *   java -cp bin:bench-bin bench.BenchmarkRunner
+ *
+ * Options (system properties):
+ *   catcher.bench            Only run cases whose label contains this text
+ *   catcher.benchWarmup      Warm-up iterations per case (default 5)
+ *   catcher.benchIterations  Measured iterations per case (default 10)
+ *   catcher.benchTimeMillis  Length of one iteration (default 200)
+ *   catcher.benchJson        Result file (default bench-results.json)
+ */
+public class BenchmarkRunner {
+
+	// z for a two-sided 99.9% interval, as JMH reports its score error
+	private static final double Z_999 = 3.29;
+
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		String filter = System.getProperty("catcher.bench", "");
+		int warmup = Integer.getInteger("catcher.benchWarmup", 5);
+		int iterations = Math.max(1, Integer.getInteger("catcher.benchIterations", 10));
+		long iterationNanos = Long.getLong("catcher.benchTimeMillis", 200L) * 1_000_000L;
+		String jsonPath = System.getProperty("catcher.benchJson", "bench-results.json");
+
+		List<Benchmark> cases = new ArrayList<>();
+		SimulationBenchmarks.register(cases);
+		RenderBenchmarks.register(cases);
+		SoundBenchmarks.register(cases);
+
+		List<String> results = new ArrayList<>();
+		System.out.printf("%-44s %12s %10s%n", "benchmark", "ns/op", "error");
+		for (Benchmark b : cases) {
+			if (!b.label().contains(filter)) {
+				continue;
+			}
+			double[] scores;
+			try {
+				String skipped = b.setUp();
+				if (skipped != null) {
+					System.out.printf("%-44s %12s  (%s)%n", b.label(), "skipped", skipped);
+					continue;
+				}
+				for (int i = 0; i < warmup; i++) {
+					iteration(b, iterationNanos);
+				}
+				scores = new double[iterations];
+				for (int i = 0; i < iterations; i++) {
+					scores[i] = iteration(b, iterationNanos);
+				}
+			} catch (Exception e) {
+				System.out.printf("%-44s %12s  (%s)%n", b.label(), "failed", e);
+				continue;
+			} finally {
+				b.tearDown();
+			}
+
+			double mean = mean(scores);
+			double error = iterations > 1 ? Z_999 * stddev(scores, mean) / Math.sqrt(iterations) : Double.NaN;
+			System.out.printf("%-44s %12.1f %10.1f%n", b.label(), mean, error);
+			results.add(toJson(b, warmup, iterations, mean, error, scores));
+		}
+
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(jsonPath)))) {
+			out.println("[");
+			out.println(String.join(",\n", results));
+			out.println("]");
+		}
+		System.out.println("Results written to " + jsonPath);
+		System.exit(0);
+	}
+
+	// Run batches for one iteration and return ns per op
+	private static double iteration(Benchmark b, long iterationNanos) throws Exception {
+		long timed = 0;
+		long ops = 0;
+		long sink = 0;
+		int batch = b.batchSize();
+		long end = System.nanoTime() + iterationNanos;
+		do {
+			b.beforeBatch();
+			long start = System.nanoTime();
+			for (int i = 0; i < batch; i++) {
+				sink += b.op();
+			}
+			timed += System.nanoTime() - start;
+			ops += batch;
+		} while (System.nanoTime() < end);
+		if (sink == 42) System.out.print("");
+		return (double) timed / ops;
+	}
+
+	private static double mean(double[] values) {
+		double sum = 0;
+		for (double v : values) sum += v;
+		return sum / values.length;
+	}
+
+	private static double stddev(double[] values, double mean) {
+		double sum = 0;
+		for (double v : values) sum += (v - mean) * (v - mean);
+		return Math.sqrt(sum / (values.length - 1));
+	}
+
+	// One result object in JMH's JSON layout
+	private static String toJson(Benchmark b, int warmup, int iterations, double score, double error, double[] raw) {
+		StringBuilder json = new StringBuilder();
+		json.append("  {\n");
+		json.append("    \"benchmark\": \"").append(b.name).append("\",\n");
+		json.append("    \"mode\": \"avgt\",\n");
+		json.append("    \"threads\": 1,\n");
+		json.append("    \"forks\": 0,\n");
+		json.append("    \"jdkVersion\": \"").append(System.getProperty("java.version")).append("\",\n");
+		json.append("    \"vmName\": \"").append(System.getProperty("java.vm.name")).append("\",\n");
+		json.append("    \"vmVersion\": \"").append(System.getProperty("java.vm.version")).append("\",\n");
+		json.append("    \"warmupIterations\": ").append(warmup).append(",\n");
+		json.append("    \"measurementIterations\": ").append(iterations).append(",\n");
+		if (b.paramName != null) {
+			json.append("    \"params\": { \"").append(b.paramName).append("\": \"").append(b.paramValue).append("\" },\n");
+		}
+		json.append("    \"primaryMetric\": {\n");
+		json.append("      \"score\": ").append(number(score)).append(",\n");
+		json.append("      \"scoreError\": ").append(number(error)).append(",\n");
+		json.append("      \"scoreUnit\": \"ns/op\",\n");
+		json.append("      \"rawData\": [[");
+		for (int i = 0; i < raw.length; i++) {
+			if (i > 0) json.append(", ");
+			json.append(number(raw[i]));
+		}
+		json.append("]]\n");
+		json.append("    }\n");
+		json.append("  }");
+		return json.toString();
+	}
+
+	// JSON has no NaN; JMH writes "NaN" as a string
+	private static String number(double v) {
+		return Double.isNaN(v) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", v);
+	}
+}
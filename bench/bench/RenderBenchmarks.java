@@ -0,0 +1,107 @@
+package bench;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+
+import entity.FallingEntity;
+import main.GamePanel;
+import main.GameStateManager;
+import main.RenderSnapshot;
+import main.UIRenderer;
+
+/**
+ * RenderBenchmarks - UIRenderer.render into an offscreen image, per screen
+ * Each case draws one full frame of a game state (menu, highscore, game,
+ * paused, game over) into a BufferedImage the size of the window, the
+ * same way GamePanel.render draws into its back buffer.
+ */
+final class RenderBenchmarks {
+
+	// Falling objects on screen in the "game" and "paused" cases
+	private static final int ON_SCREEN = 60;
+
+	private static GamePanel panel;
+
+	private RenderBenchmarks() {}
+
+	static void register(List<Benchmark> cases) {
+		cases.add(new Render("menu", GameStateManager.MENU_STATE, false));
+		cases.add(new Render("highscore", GameStateManager.HIGHSCORE_STATE, false));
+		cases.add(new Render("game", GameStateManager.GAME_STATE, false));
+		cases.add(new Render("paused", GameStateManager.GAME_STATE, true));
+		cases.add(new Render("gameover", GameStateManager.GAMEOVER_STATE, false));
+	}
+
+	// One panel (and its loaded images) shared by every case
+	private static GamePanel panel() {
+		if (panel == null) {
+			System.setProperty("catcher.frameStatsFile", "");
+			panel = new GamePanel();
+		}
+		return panel;
+	}
+
+	static final class Render extends Benchmark {
+		private final int gameState;
+		private final boolean paused;
+		private UIRenderer renderer;
+		private BufferedImage image;
+		private final RenderSnapshot snapshot = new RenderSnapshot();
+
+		Render(String screen, int gameState, boolean paused) {
+			super("render.frame", "screen", screen);
+			this.gameState = gameState;
+			this.paused = paused;
+		}
+
+		@Override
+		protected String setUp() {
+			GamePanel panel = panel();
+			renderer = new UIRenderer(panel, panel.world.stateManager);
+			image = new BufferedImage(panel.screenWidth, panel.screenHeight, BufferedImage.TYPE_INT_RGB);
+
+			// A mid-game frame: some score, some lives, objects all over the screen
+			snapshot.gameState = gameState;
+			snapshot.paused = paused;
+			snapshot.highscore = 12_345;
+			snapshot.score = 4_560;
+			snapshot.lives = 6;
+			snapshot.playerX = snapshot.playerPrevX = panel.screenWidth / 2;
+			snapshot.playerY = snapshot.playerPrevY = panel.screenHeight - 150;
+			snapshot.playerDirection = "right";
+			snapshot.playerMoving = true;
+			snapshot.playerSpriteNum = 1;
+			Random random = new Random(42);
+			for (int i = 0; i < ON_SCREEN; i++) {
+				snapshot.entityX[i] = snapshot.entityPrevX[i] = random.nextInt(panel.screenWidth - 50);
+				snapshot.entityY[i] = random.nextInt(panel.screenHeight);
+				snapshot.entityPrevY[i] = snapshot.entityY[i] - 3;
+				snapshot.entityType[i] = random.nextInt(3) == 0 ? FallingEntity.TYPE_BOMB : 1 + random.nextInt(5);
+			}
+			snapshot.entityCount = ON_SCREEN;
+			return null;
+		}
+
+		@Override
+		protected int batchSize() {
+			return 10;
+		}
+
+		@Override
+		protected long op() {
+			Graphics2D g2 = image.createGraphics();
+			try {
+				g2.setColor(Color.black);
+				g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+				renderer.setFrame(snapshot, 0.5f);
+				renderer.render(g2);
+			} finally {
+				g2.dispose();
+			}
+			return image.getRGB(0, 0);
+		}
+	}
+}
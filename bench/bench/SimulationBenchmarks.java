@@ -0,0 +1,281 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import entity.CollisionKernel;
+import entity.FallingEntity;
+import entity.FallingEntityStore;
+import entity.Player;
+import entity.sounds;
+import main.GameWorld;
+import main.InputFrame;
+import main.InputSource;
+import main.NullSoundHandler;
+
+/**
+ * SimulationBenchmarks - Game tick, collision tests and falling-object setup
+ *  - simulation.update:    one tick (input + GameplayManager.update) with N objects falling
+ *  - collision.perObject:  FallingEntity.checkCatch/checkCollision over N objects
+ *  - collision.kernel:     CollisionKernel.test over the same N objects (setUp first
+ *                          checks it gives the per-object results, catching or not)
+ *  - entity.construct:     new FallingEntity
+ *  - entity.storeSpawn:    FallingEntityStore.spawn + remove (what the game does instead)
+ */
+final class SimulationBenchmarks {
+
+	private static final int[] UPDATE_SIZES = { 100, 1_000, 10_000 };
+	private static final int[] COLLISION_SIZES = { 1_000, 10_000, 100_000 };
+
+	private SimulationBenchmarks() {}
+
+	static void register(List<Benchmark> cases) {
+		for (int n : UPDATE_SIZES) {
+			cases.add(new Update(n));
+		}
+		for (int n : COLLISION_SIZES) {
+			cases.add(new PerObjectCollision(n));
+		}
+		for (int n : COLLISION_SIZES) {
+			cases.add(new KernelCollision(n));
+		}
+		cases.add(new Construct());
+		cases.add(new StoreSpawn());
+	}
+
+	// A quiet world big enough for n falling objects
+	static GameWorld createWorld(int capacity) {
+		System.setProperty("catcher.maxEntities", String.valueOf(Math.max(256, capacity)));
+		GameWorld world = new GameWorld(new sounds(new NullSoundHandler()), 1L);
+		world.player.logEvents = false;
+		return world;
+	}
+
+	/**
+	 * One simulation tick with the screen holding N objects at the start of
+	 * every batch (a batch is one second of play, so some fall off or get
+	 * caught before it ends, as in a real game)
+	 */
+	static final class Update extends Benchmark {
+		private final int entities;
+		private GameWorld world;
+		private int[] startX, startY, startType;
+		private long tick;
+
+		// Holds space every other tick so the catch path runs too
+		private final InputSource input = (keys, mouse) -> keys.setHeldKeys((tick & 1) == 0 ? InputFrame.KEY_SPACE : 0);
+
+		Update(int entities) {
+			super("simulation.update", "entities", String.valueOf(entities));
+			this.entities = entities;
+		}
+
+		@Override
+		protected String setUp() {
+			world = createWorld(entities * 2);
+			Random random = new Random(42);
+			startX = new int[entities];
+			startY = new int[entities];
+			startType = new int[entities];
+			for (int i = 0; i < entities; i++) {
+				startX[i] = random.nextInt(world.screenWidth - 50);
+				startY[i] = random.nextInt(world.screenHeight);
+				startType[i] = random.nextInt(3) == 0 ? FallingEntity.TYPE_BOMB : 1 + random.nextInt(5);
+			}
+			return null;
+		}
+
+		@Override
+		protected void beforeBatch() {
+			world.startGame();
+			world.player.lives = Integer.MAX_VALUE / 2; // Bomb hits must not end the game mid-batch
+			FallingEntityStore store = world.fallingEntities;
+			for (int i = 0; i < entities; i++) {
+				int slot = store.spawn(startX[i], startType[i]);
+				store.y[slot] = startY[i];
+				store.prevY[slot] = startY[i];
+			}
+		}
+
+		@Override
+		protected int batchSize() {
+			return 60;
+		}
+
+		@Override
+		protected long op() {
+			tick++;
+			world.pollInput(input);
+			world.tick();
+			return world.fallingEntities.size();
+		}
+	}
+
+	// Objects scattered over the screen, a third of them bombs, with the
+	// player catching in the middle; most tests miss, as in the game
+	private static void scatter(FallingEntityStore store, GameWorld world, int n) {
+		Random random = new Random(42);
+		for (int i = 0; i < n; i++) {
+			store.spawn(random.nextInt(world.screenWidth - 50), random.nextInt(3) == 0 ? FallingEntity.TYPE_BOMB : 1);
+			store.y[i] = random.nextInt(world.screenHeight);
+		}
+	}
+
+	/**
+	 * The original per-object tests, one FallingEntity at a time
+	 */
+	static final class PerObjectCollision extends Benchmark {
+		private final int count;
+		private FallingEntity[] objects;
+		private Player player;
+
+		PerObjectCollision(int count) {
+			super("collision.perObject", "objects", String.valueOf(count));
+			this.count = count;
+		}
+
+		@Override
+		protected String setUp() {
+			GameWorld world = createWorld(count);
+			FallingEntityStore store = new FallingEntityStore(count);
+			scatter(store, world, count);
+			objects = new FallingEntity[count];
+			for (int i = 0; i < count; i++) {
+				objects[i] = new FallingEntity(world, store.x[i], store.type[i]);
+				objects[i].worldY = store.y[i];
+			}
+			player = world.player;
+			player.isCatching = true;
+			return null;
+		}
+
+		@Override
+		protected int batchSize() {
+			return 10;
+		}
+
+		@Override
+		protected long op() {
+			long events = 0;
+			for (FallingEntity object : objects) {
+				if (object.checkCatch(player) || object.checkCollision(player)) {
+					events++;
+				}
+			}
+			return events;
+		}
+	}
+
+	/**
+	 * The batched branch-free tests the game uses
+	 */
+	static final class KernelCollision extends Benchmark {
+		private final int count;
+		private FallingEntityStore store;
+		private Player player;
+		private int catchRadius;
+		private long[] caught, hit;
+		private int[] scratch;
+
+		KernelCollision(int count) {
+			super("collision.kernel", "objects", String.valueOf(count));
+			this.count = count;
+		}
+
+		@Override
+		protected String setUp() {
+			GameWorld world = createWorld(count);
+			store = new FallingEntityStore(count);
+			scatter(store, world, count);
+			player = world.player;
+			catchRadius = world.tileSize + 20;
+			caught = new long[CollisionKernel.maskWords(count)];
+			hit = new long[caught.length];
+			scratch = new int[count];
+
+			// A fast kernel is no use if it disagrees with the per-object tests
+			long[] expectedCaught = new long[caught.length];
+			long[] expectedHit = new long[hit.length];
+			for (int catching = 0; catching < 2; catching++) {
+				player.isCatching = catching == 1;
+				perObject(store, player, catchRadius, expectedCaught, expectedHit);
+				CollisionKernel.test(store.x, store.y, store.flags, count, player, catchRadius, caught, hit, scratch);
+				if (!Arrays.equals(caught, expectedCaught) || !Arrays.equals(hit, expectedHit)) {
+					throw new IllegalStateException("kernel disagrees with the per-object tests at " + count
+							+ " objects (catching " + player.isCatching + ")");
+				}
+			}
+			player.isCatching = true;
+			return null;
+		}
+
+		// The one-object-at-a-time tests, producing the kernel's masks
+		private static void perObject(FallingEntityStore store, Player player, int catchRadius, long[] caught, long[] hit) {
+			Arrays.fill(caught, 0);
+			Arrays.fill(hit, 0);
+			for (int i = 0; i < store.size(); i++) {
+				if (player.isCatching && FallingEntity.inCatchRange(store.x[i], store.y[i], player, catchRadius)) {
+					caught[i >>> 6] |= 1L << i;
+				} else if (store.isBomb(i) && FallingEntity.overlapsPlayer(store.x[i], store.y[i], player)) {
+					hit[i >>> 6] |= 1L << i;
+				}
+			}
+		}
+
+		@Override
+		protected int batchSize() {
+			return 10;
+		}
+
+		@Override
+		protected long op() {
+			CollisionKernel.test(store.x, store.y, store.flags, store.size(), player, catchRadius, caught, hit, scratch);
+			return caught[0] ^ hit[0];
+		}
+	}
+
+	/**
+	 * Allocating a falling object the way the game used to
+	 */
+	static final class Construct extends Benchmark {
+		private GameWorld world;
+		private int x;
+
+		Construct() {
+			super("entity.construct");
+		}
+
+		@Override
+		protected String setUp() {
+			world = createWorld(256);
+			return null;
+		}
+
+		@Override
+		protected long op() {
+			x = (x + 37) % 900;
+			return new FallingEntity(world, x, 1 + x % 5).worldX;
+		}
+	}
+
+	/**
+	 * Adding and removing an object in the structure-of-arrays store
+	 */
+	static final class StoreSpawn extends Benchmark {
+		private final FallingEntityStore store = new FallingEntityStore(256);
+		private int x;
+
+		StoreSpawn() {
+			super("entity.storeSpawn");
+		}
+
+		@Override
+		protected long op() {
+			x = (x + 37) % 900;
+			int i = store.spawn(x, 1 + x % 5);
+			store.remove(i);
+			return i;
+		}
+	}
+}
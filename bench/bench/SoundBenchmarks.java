@@ -0,0 +1,118 @@
+package bench;
+
+import java.io.File;
+import java.util.List;
+
+import javax.sound.sampled.AudioSystem;
+
+import entity.sounds;
+import main.NullSoundHandler;
+import main.PcmSound;
+import main.SoundHandler;
+
+/**
+ * SoundBenchmarks - Cost of starting a sound effect
+ *  - sound.dispatch:   sounds.playCoinCollectSound into a NullSoundHandler
+ *                      (the game-side cost, no audio at all)
+ *  - sound.decode:     decoding the WAV into PCM (PcmSound.decode), done once
+ *                      per effect when SoundHandler loads it
+ *  - sound.playSound:  SoundHandler.playSound at zero volume (rewinding a
+ *                      pooled clip); skipped on machines with no audio line
+ */
+final class SoundBenchmarks {
+
+	private static final String SOUND_FILE = "res/sounds/eating(1).WAV";
+
+	private SoundBenchmarks() {}
+
+	static void register(List<Benchmark> cases) {
+		cases.add(new Dispatch());
+		cases.add(new Decode());
+		cases.add(new PlaySound());
+	}
+
+	static final class Dispatch extends Benchmark {
+		private NullSoundHandler audio;
+		private sounds gameSound;
+
+		Dispatch() {
+			super("sound.dispatch");
+		}
+
+		@Override
+		protected String setUp() {
+			audio = new NullSoundHandler();
+			gameSound = new sounds(audio);
+			return null;
+		}
+
+		@Override
+		protected long op() {
+			gameSound.playCoinCollectSound();
+			return audio.getPlayCount();
+		}
+	}
+
+	static final class Decode extends Benchmark {
+		private File file;
+
+		Decode() {
+			super("sound.decode");
+		}
+
+		@Override
+		protected String setUp() {
+			file = new File(SOUND_FILE);
+			return file.exists() ? null : SOUND_FILE + " not found";
+		}
+
+		@Override
+		protected int batchSize() {
+			return 10;
+		}
+
+		@Override
+		protected long op() throws Exception {
+			return PcmSound.decode(file.getPath()).frames;
+		}
+	}
+
+	static final class PlaySound extends Benchmark {
+		private SoundHandler handler;
+
+		PlaySound() {
+			super("sound.playSound");
+		}
+
+		@Override
+		protected String setUp() {
+			try {
+				AudioSystem.getClip().close();
+			} catch (Exception e) {
+				return "no audio line: " + e.getMessage();
+			}
+			handler = new SoundHandler();
+			handler.loadSound("coin_collect", SOUND_FILE);
+			handler.setMasterVolume(0.0f);
+			return null;
+		}
+
+		@Override
+		protected int batchSize() {
+			return 10;
+		}
+
+		@Override
+		protected long op() {
+			handler.playSound("coin_collect");
+			return 1;
+		}
+
+		@Override
+		protected void tearDown() {
+			if (handler != null) {
+				handler.unloadAllSounds();
+			}
+		}
+	}
+}
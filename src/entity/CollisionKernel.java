@@ -0,0 +1,88 @@
+package entity;
+
+/**
+ * CollisionKernel - Batched catch and bomb-hit tests over packed arrays
+ * Tests a whole batch of falling objects against one player in a single
+ * branch-free loop and reports the results as bitmasks (bit i of word i/64
+ * is object i). Gives exactly the same answers as FallingEntity.inCatchRange
+ * and FallingEntity.overlapsPlayer:
+ *  - floor(sqrt(d2)) < r  is the same as  d2 < r * r  for whole numbers
+ *  - an object that is caught is never also reported as a hit
+ */
+public final class CollisionKernel {
+
+	private CollisionKernel() {}
+
+	/**
+	 * Number of long words needed to hold one bit per object
+	 */
+	public static int maskWords(int count) {
+		return (count + 63) >>> 6;
+	}
+
+	/**
+	 * Test count objects against a player
+	 *
+	 * @param x Object X positions
+	 * @param y Object Y positions
+	 * @param flags Object flags (FallingEntityStore.FLAG_BOMB)
+	 * @param count Number of objects to test
+	 * @param player The player to test against
+	 * @param catchRadius Catch radius in pixels
+	 * @param caughtMask Receives a bit for each caught object (maskWords(count) long)
+	 * @param hitMask Receives a bit for each bomb that hit the player (maskWords(count) long)
+	 * @param results Scratch space, at least count entries
+	 */
+	public static void test(int[] x, int[] y, int[] flags, int count,
+			Player player, int catchRadius, long[] caughtMask, long[] hitMask, int[] results) {
+
+		// Player catch center, shifted into object-position space so the
+		// loop only has to subtract
+		int centerX = player.worldX + (player.solidArea.width / 2)
+				- (FallingEntity.SOLID_WIDTH / 2) - FallingEntity.SOLID_X;
+		int centerY = player.worldY + (player.solidArea.height / 2)
+				- (FallingEntity.SOLID_HEIGHT / 2) - FallingEntity.SOLID_Y;
+		int radiusSquared = catchRadius * catchRadius;
+		int catching = player.isCatching ? 1 : 0;
+
+		// Player solid box, shifted the same way
+		int playerLeft = player.worldX + player.solidArea.x;
+		int playerTop = player.worldY + player.solidArea.y;
+		int hitMinX = playerLeft - FallingEntity.SOLID_X - FallingEntity.SOLID_WIDTH; // x > hitMinX
+		int hitMaxX = playerLeft + player.solidArea.width - FallingEntity.SOLID_X; // x < hitMaxX
+		int hitMinY = playerTop - FallingEntity.SOLID_Y - FallingEntity.SOLID_HEIGHT;
+		int hitMaxY = playerTop + player.solidArea.height - FallingEntity.SOLID_Y;
+
+		// === PASS 1: plain int arithmetic, one result per object ===
+		// No branches or cross-iteration state, so the JIT can run it on SIMD lanes
+		for (int i = 0; i < count; i++) {
+			int dx = x[i] - centerX;
+			int dy = y[i] - centerY;
+			int d2 = dx * dx + dy * dy;
+
+			// (a - b) >>> 31 is 1 exactly when a < b (no overflow at screen scale)
+			int inRange = ((d2 - radiusSquared) >>> 31) & catching;
+			int overlap = ((hitMinX - x[i]) >>> 31) & ((x[i] - hitMaxX) >>> 31)
+					& ((hitMinY - y[i]) >>> 31) & ((y[i] - hitMaxY) >>> 31);
+			int isHit = overlap & (flags[i] & FallingEntityStore.FLAG_BOMB) & (inRange ^ 1);
+
+			results[i] = inRange | (isHit << 1);
+		}
+
+		// === PASS 2: pack into bitmasks ===
+		int words = maskWords(count);
+		for (int w = 0; w < words; w++) {
+			long caught = 0;
+			long hit = 0;
+			int base = w << 6;
+			int end = Math.min(base + 64, count);
+			for (int i = base; i < end; i++) {
+				int bit = i & 63;
+				caught |= (long) (results[i] & 1) << bit;
+				hit |= (long) (results[i] >>> 1) << bit;
+			}
+			caughtMask[w] = caught;
+			hitMask[w] = hit;
+		}
+	}
+}
@@ -6,10 +6,11 @@ import java.awt.image.BufferedImage;
 public class Entity {
 	
 	public int worldX, worldY, playerPosX, playerPosY;
+	public int prevWorldX, prevWorldY; // Position at the previous simulation tick (for interpolation)
 	public int speed;
 	public BufferedImage up1, up2, up3, down1, down2, down3, left1, left2, left3;
 	public BufferedImage right1, right2, right3, light, backGround, catchLeft, catchRight;
-	public BufferedImage bomb, chicken, fish, heart, hotdog, meat, poop, healingPotion;
+	public BufferedImage heart;
 	public BufferedImage playButtonNormal, playButtonHighlighted, highscoreButtonNormal, highscoreButtonHighlighted, continueButtonNormal, continueButtonHighlighted;
 	public BufferedImage menuButtonNormal, menuButtonHighlighted, retryButtonNormal, retryButtonHighlighted;
 	public BufferedImage background, cat, catcher, highScoreBufferedImage, gameOverBufferedImage, dead;
@@ -23,7 +24,6 @@ public class Entity {
 	public int score = 0;
 	public boolean isCatching = false;
 	public int catchTimer = 0;
-	public boolean spaceWasPressed = false;
 	
 	
 }
@@ -1,29 +1,47 @@
 package entity;
 
-import java.awt.Color;
-import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
-import main.GamePanel;
+import main.GameWorld;
 
 // ========================================
 // FALLING ENTITY CLASS
 // Represents objects that fall from top
 // Can be caught by the player
+// Holds only a sprite id; the images themselves live in SpriteCache
+//
+// The game keeps its falling objects in a FallingEntityStore; the static
+// rule methods below are shared by that store and by this single-object
+// form, so both behave exactly the same
 // ========================================
-public class FallingEntity extends Entity{
-    GamePanel gp; // Reference to the game panel
+public class FallingEntity {
+    GameWorld gp; // Reference to the game world
+    
+    // Size (in pixels) falling objects are drawn at
+    public static final int DRAW_SIZE = 60;
+    
+    // Object types
+    public static final int TYPE_BOMB = 0;
+    
+    // Collision box, relative to the object's position
+    public static final int SOLID_X = 5; // Offset from left
+    public static final int SOLID_Y = 5; // Offset from top
+    public static final int SOLID_WIDTH = 40; // Width of collision box
+    public static final int SOLID_HEIGHT = 40; // Height of collision box
+    
+    // POSITION
+    public int worldX, worldY;
+    public int prevWorldX, prevWorldY; // Position at the previous tick (for interpolation)
+    public Rectangle solidArea;
     
     // MOVEMENT
-    int fallSpeed = 3; // How many pixels per frame to fall
+    public static final int BASE_FALL_SPEED = 3; // How many pixels per frame to fall
+    public static final int DIFFICULTY_RAMP_TICKS = 2000; // Ticks for fall speed to grow by 1x
+    public static final int MAX_DIFFICULTY = 10; // Fall speed cap, as a multiple of the base speed
     
     // STATE
     boolean isActive = true; // Is this object still in the game?
-    BufferedImage currentImage; // The image to display
+    int spriteId; // SpriteCache id of the image to display
     int imageType; // 0=bomb, 1=chicken, 2=fish
     boolean hasHitPlayer = false; // Track if bomb already hit player
     int points = 0; // Points awarded when caught (0=bomb, 1=chicken, 2=fish)
@@ -31,79 +49,116 @@ public class FallingEntity extends Entity{
 
     // ========================================
     // CONSTRUCTOR - Creates a new falling object
-    // @param gp - Game panel reference
+    // @param gp - Game world reference
     // @param spawnX - X position to spawn at (top of screen)
     // @param imageType - Which image: 0=bomb, 1=chicken, 2=fish
     // ========================================
-    public FallingEntity(GamePanel gp, int spawnX, int imageType){
+    public FallingEntity(GameWorld gp, int spawnX, int imageType){
         this.gp = gp;
         this.worldX = spawnX; // Spawn at random X position
         this.worldY = 0; // Always start at top (Y = 0)
-        this.direction = "fall";
+        this.prevWorldX = worldX;
+        this.prevWorldY = worldY;
         
         // CREATE COLLISION BOX
-        solidArea = new Rectangle();
-        solidArea.x = 5; // Offset from left
-        solidArea.y = 5; // Offset from top
-        solidArea.width = 40; // Width of collision box
-        solidArea.height = 40; // Height of collision box
+        solidArea = new Rectangle(SOLID_X, SOLID_Y, SOLID_WIDTH, SOLID_HEIGHT);
         
-        // Load all the falling object images from files
-        getFallingObjectImage();
-        
-        // Pick which image to use based on imageType parameter
+        // Pick which sprite to use based on imageType parameter
         selectImageType(imageType);
     }
-
+    
     // ========================================
-    // LOAD IMAGES - Load all falling object images from /fallingObjects folder
+    // SELECT IMAGE - Pick which sprite to display based on type
+    // @param imageType - 0=bomb, 1=chicken, 2=fish
     // ========================================
-    public void getFallingObjectImage(){
-        try {
-            // Try to load each image from resources
-            bomb = ImageIO.read(getClass().getResourceAsStream("/fallingObjects/Bomb.png"));
-            chicken = ImageIO.read(getClass().getResourceAsStream("/fallingObjects/Chicken.png"));
-            heart = ImageIO.read(getClass().getResourceAsStream("/fallingObjects/Heart.png"));
-            fish = ImageIO.read(getClass().getResourceAsStream("/fallingObjects/Fish.png"));
-            hotdog = ImageIO.read(getClass().getResourceAsStream("/fallingObjects/Hotdog.png"));
-            healingPotion = ImageIO.read(getClass().getResourceAsStream("/fallingObjects/HealingPotion.png")); 
-        } catch (IOException e) {
-            // If image fails to load, print error
-            e.printStackTrace(); 
+    private void selectImageType(int imageType) {
+        this.imageType = imageType; // Store image type for later reference
+        this.spriteId = spriteFor(imageType);
+        this.points = pointsFor(imageType);
+    }
+    
+    // ========================================
+    // SPRITE FOR - Which SpriteCache sprite an object type is drawn with
+    // @param imageType - 0=bomb, 1=chicken, 2=fish
+    // ========================================
+    public static int spriteFor(int imageType) {
+        switch(imageType) {
+            case 0: return SpriteCache.BOMB; // Bomb
+            case 1: return SpriteCache.CHICKEN; // Chicken
+            case 2: return SpriteCache.FISH; // Fish
+            case 3: return SpriteCache.HOTDOG;
+            default: return SpriteCache.CHICKEN; // Default to chicken if unknown type (4 falls through here too)
         }
     }
     
     // ========================================
-    // SELECT IMAGE - Pick which image to display based on type
+    // POINTS FOR - Points awarded for catching an object type
     // @param imageType - 0=bomb, 1=chicken, 2=fish
     // ========================================
-    private void selectImageType(int imageType) {
-        this.imageType = imageType; // Store image type for later reference
+    public static int pointsFor(int imageType) {
         switch(imageType) {
-            case 0: // Bomb
-                currentImage = bomb;
-                points = 0; // Bombs give 0 points when caught
-                break;
-            case 1: // Chicken
-                currentImage = chicken;
-                points = 50; 
-                break;
-            case 2: // Fish
-                currentImage = fish;
-                points = 100; 
-                break;
-            case 3:
-                currentImage = hotdog;
-                points = 25;
-                break;
-            case 4:
-                currentImage = healingPotion;
-                points = 0;
-            default: // Default to chicken if unknown type
-                currentImage = chicken;
-                points = 50;
+            case 0: return 0; // Bombs give 0 points when caught
+            case 1: return 50;
+            case 2: return 100;
+            case 3: return 25;
+            default: return 50; // Same as chicken (4 falls through here too)
         }
     }
+    
+    // ========================================
+    // FALL STEP - Pixels every object falls this tick
+    // Speed increases over time (+1x every DIFFICULTY_RAMP_TICKS), capped at 10x
+    // Whole-number math only, so every machine gets the same answer
+    // @param gameTime - Current game time in frames for difficulty scaling
+    // ========================================
+    public static int fallStep(long gameTime) {
+        // BASE * (1 + t / RAMP) == BASE * (RAMP + t) / RAMP
+        long step = BASE_FALL_SPEED * (DIFFICULTY_RAMP_TICKS + gameTime) / DIFFICULTY_RAMP_TICKS;
+        return (int) Math.min(step, BASE_FALL_SPEED * MAX_DIFFICULTY);
+    }
+    
+    // ========================================
+    // IN CATCH RANGE - Is an object at (x, y) within the player's catch radius
+    // @param catchRadius - tile size + margin
+    // ========================================
+    public static boolean inCatchRange(int x, int y, Player player, int catchRadius) {
+        // Get player's collision box center
+        int playerCenterX = player.worldX + (player.solidArea.width / 2);
+        int playerCenterY = player.worldY + (player.solidArea.height / 2);
+        
+        // Get this entity's center
+        int entityCenterX = x + (SOLID_WIDTH / 2) + SOLID_X;
+        int entityCenterY = y + (SOLID_HEIGHT / 2) + SOLID_Y;
+        
+        // Calculate distance between centers
+        int distance = (int) Math.sqrt(
+            Math.pow(entityCenterX - playerCenterX, 2) + 
+            Math.pow(entityCenterY - playerCenterY, 2)
+        ); 
+        
+        return distance < catchRadius;
+    }
+    
+    // ========================================
+    // OVERLAPS PLAYER - Does an object at (x, y) touch the player's solid area
+    // Axis-Aligned Bounding Box test
+    // ========================================
+    public static boolean overlapsPlayer(int x, int y, Player player) {
+        int entityLeftWorldX = x + SOLID_X;
+        int entityRightWorldX = x + SOLID_X + SOLID_WIDTH;
+        int entityTopWorldY = y + SOLID_Y;
+        int entityBottomWorldY = y + SOLID_Y + SOLID_HEIGHT;
+        
+        int playerLeftWorldX = player.worldX + player.solidArea.x;
+        int playerRightWorldX = player.worldX + player.solidArea.x + player.solidArea.width;
+        int playerTopWorldY = player.worldY + player.solidArea.y;
+        int playerBottomWorldY = player.worldY + player.solidArea.y + player.solidArea.height;
+        
+        return entityLeftWorldX < playerRightWorldX &&
+               entityRightWorldX > playerLeftWorldX &&
+               entityTopWorldY < playerBottomWorldY &&
+               entityBottomWorldY > playerTopWorldY;
+    }
 
     // ========================================
     // UPDATE - Called every frame to move the falling object
@@ -113,13 +168,12 @@ public class FallingEntity extends Entity{
         // If this object is no longer active, do nothing
         if (!isActive) return;
         
-        // Calculate difficulty scaling: increase speed over time
-        // Avoid redundant floating-point math on every frame
-        float difficultyMultiplier = 1.0f + (gameTime * 0.0005f);
-        float currentFallSpeed = fallSpeed * (difficultyMultiplier > 10 ? 10 : difficultyMultiplier);
+        // Remember where we were so rendering can interpolate
+        prevWorldX = worldX;
+        prevWorldY = worldY;
         
         // Move down by scaled fall speed pixels each frame
-        worldY += (int) currentFallSpeed;
+        worldY += fallStep(gameTime);
         
         // Check if object fell off bottom of screen
         if (worldY > gp.screenHeight) {
@@ -128,29 +182,11 @@ public class FallingEntity extends Entity{
     }
 
     // ========================================
-    // DRAW - Display the falling object on screen
-    // @param g2 - Graphics2D object for drawing
+    // GET SPRITE ID - Which shared sprite this entity is drawn with
+    // @return SpriteCache id
     // ========================================
-    public void draw(Graphics2D g2){
-        // If not active, don't draw anything
-        if (!isActive) return;
-        
-        int size = 60; // Size to draw the image
-        
-        // Draw the image if it loaded successfully
-        if (currentImage != null) {
-            g2.drawImage(currentImage, worldX, worldY, size, size, null);
-        } else {
-            // Debug message if image failed to load
-            System.out.println("WARNING: currentImage is null! worldX=" + worldX + ", worldY=" + worldY + ", isActive=" + isActive);
-        }
-        
-        // ================================
-        // DEBUG VISUALIZATION
-        // ================================
-        // Draw a blue rectangle showing the collision box
-        g2.setColor(new Color(0, 0, 0, 0)); // Semi-transparent blue
-        g2.drawRect(worldX + solidArea.x, worldY + solidArea.y, solidArea.width, solidArea.height);
+    public int getSpriteId() {
+        return spriteId;
     }
     
     // ========================================
@@ -162,26 +198,12 @@ public class FallingEntity extends Entity{
         // If object already caught/removed, can't catch again
         if (!isActive) return false;
         
-        // Get player's collision box center
-        int playerCenterX = player.worldX + (player.solidArea.width / 2);
-        int playerCenterY = player.worldY + (player.solidArea.height / 2);
-        
-        // Get this entity's center
-        int entityCenterX = this.worldX + (solidArea.width / 2) + solidArea.x;
-        int entityCenterY = this.worldY + (solidArea.height / 2) + solidArea.y;
-        
-        // Calculate distance between centers
-        int distance = (int) Math.sqrt(
-            Math.pow(entityCenterX - playerCenterX, 2) + 
-            Math.pow(entityCenterY - playerCenterY, 2)
-        ); 
-        
         // LARGER CATCH RADIUS for more forgiving catching
         // 68 pixel radius = tile size (48) + extra margin (20)
         int catchRadius = gp.tileSize + 20;
         
         // IF DISTANCE IS SMALL ENOUGH, IT'S CAUGHT!
-        if (distance < catchRadius) {
+        if (inCatchRange(worldX, worldY, player, catchRadius)) {
             this.isActive = false; // Remove the object
             this.wasCaught = true; // Mark that this entity was caught
             return true; // Tell GamePanel it was caught
@@ -211,22 +233,8 @@ public class FallingEntity extends Entity{
         // If already hit player or not active, can't hit again
         if (!isActive || hasHitPlayer) return false;
         
-        // Get collision box coordinates
-        int entityLeftWorldX = this.worldX + this.solidArea.x;
-        int entityRightWorldX = this.worldX + this.solidArea.x + this.solidArea.width;
-        int entityTopWorldY = this.worldY + this.solidArea.y;
-        int entityBottomWorldY = this.worldY + this.solidArea.y + this.solidArea.height;
-        
-        int playerLeftWorldX = player.worldX + player.solidArea.x;
-        int playerRightWorldX = player.worldX + player.solidArea.x + player.solidArea.width;
-        int playerTopWorldY = player.worldY + player.solidArea.y;
-        int playerBottomWorldY = player.worldY + player.solidArea.y + player.solidArea.height;
-        
         // Check for rectangular collision (AABB - Axis-Aligned Bounding Box)
-        if (entityLeftWorldX < playerRightWorldX &&
-            entityRightWorldX > playerLeftWorldX &&
-            entityTopWorldY < playerBottomWorldY &&
-            entityBottomWorldY > playerTopWorldY) {
+        if (overlapsPlayer(worldX, worldY, player)) {
             
             hasHitPlayer = true; // Mark that this bomb has hit the player
             return true; // Collision detected
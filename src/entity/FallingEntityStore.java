@@ -0,0 +1,113 @@
+package entity;
+
+/**
+ * FallingEntityStore - Structure-of-arrays storage for falling objects
+ * Every live object is one index into a set of parallel primitive arrays.
+ * The first count entries are live; removal swaps the last entry into the
+ * hole so it is O(1) and the live range stays dense for linear iteration.
+ * Rules (fall speed, catch and hit tests, points) come from FallingEntity.
+ */
+public class FallingEntityStore {
+
+	// === FLAGS ===
+	public static final int FLAG_BOMB = 1; // Must stay bit 0, CollisionKernel uses it as a 0/1 value
+
+	// === PARALLEL ARRAYS ===
+	public final int[] x;
+	public final int[] y;
+	public final int[] prevX; // Position at the previous tick (for interpolation)
+	public final int[] prevY;
+	public final int[] type; // 0=bomb, 1=chicken, 2=fish, ...
+	public final int[] points;
+	public final int[] flags;
+	public final long[] spawnOrder; // Rises with every spawn: the order objects appeared in
+
+	private final int capacity;
+	private int count = 0;
+	private long spawned = 0;
+
+	// Stats
+	private int highWaterMark = 0;
+	private long exhaustedCount = 0;
+
+	/**
+	 * Create an empty store
+	 *
+	 * @param capacity Maximum number of objects alive at once
+	 */
+	public FallingEntityStore(int capacity) {
+		this.capacity = capacity;
+		x = new int[capacity];
+		y = new int[capacity];
+		prevX = new int[capacity];
+		prevY = new int[capacity];
+		type = new int[capacity];
+		points = new int[capacity];
+		flags = new int[capacity];
+		spawnOrder = new long[capacity];
+	}
+
+	/**
+	 * Add a freshly spawned object at the top of the screen
+	 *
+	 * @param spawnX X position to spawn at
+	 * @param imageType Which object: 0=bomb, 1=chicken, 2=fish, ...
+	 * @return the new index, or -1 if the store is full
+	 */
+	public int spawn(int spawnX, int imageType) {
+		if (count == capacity) {
+			exhaustedCount++;
+			return -1;
+		}
+		int i = count++;
+		x[i] = spawnX;
+		y[i] = 0;
+		prevX[i] = spawnX;
+		prevY[i] = 0;
+		type[i] = imageType;
+		points[i] = FallingEntity.pointsFor(imageType);
+		flags[i] = imageType == FallingEntity.TYPE_BOMB ? FLAG_BOMB : 0;
+		spawnOrder[i] = spawned++;
+		if (count > highWaterMark) {
+			highWaterMark = count;
+		}
+		return i;
+	}
+
+	/**
+	 * Remove an object by moving the last live object into its slot
+	 * When iterating, walk from the end so the moved object was already seen
+	 *
+	 * @param i Index of the object to remove
+	 */
+	public void remove(int i) {
+		int last = --count;
+		if (i != last) {
+			x[i] = x[last];
+			y[i] = y[last];
+			prevX[i] = prevX[last];
+			prevY[i] = prevY[last];
+			type[i] = type[last];
+			points[i] = points[last];
+			flags[i] = flags[last];
+			spawnOrder[i] = spawnOrder[last];
+		}
+	}
+
+	/**
+	 * Remove every object
+	 */
+	public void clear() {
+		count = 0;
+	}
+
+	public boolean isBomb(int i) {
+		return (flags[i] & FLAG_BOMB) != 0;
+	}
+
+	// Getters
+	public int size() { return count; }
+	public int getCapacity() { return capacity; }
+	public int getHighWaterMark() { return highWaterMark; }
+	public long getExhaustedCount() { return exhaustedCount; }
+}
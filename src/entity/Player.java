@@ -5,24 +5,27 @@ import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
-import main.GamePanel;
-import main.KeyHandler;
+import main.AssetLoader;
+import main.GameWorld;
+import main.InputFrame;
+import main.RenderSnapshot;
 
 public class Player extends Entity {
 
-	GamePanel gp;
-	KeyHandler keyH;
+	// Debug box colors, made once instead of every frame
+	private static final Color SOLID_AREA_COLOR = new Color(0, 0, 0, 0);
+	private static final Color CATCH_RADIUS_COLOR = new Color(0, 0, 0, 100);
+
+	GameWorld gp;
 
 	public final int screenX;
 	public final int screenY;
 	public int lives = 9; // Player has 9 lives
+	public boolean logEvents = true; // Print score/life changes (off for headless runs)
 
-	public Player(GamePanel gp, KeyHandler keyH) {
+	public Player(GameWorld gp) {
 
 		this.gp = gp;
-		this.keyH = keyH;
 
 		screenX = gp.screenWidth / 2 - (gp.tileSize / 2);
 		screenY = gp.screenHeight / 2 - (gp.tileSize / 2);
@@ -33,14 +36,16 @@ public class Player extends Entity {
 		solidArea.width = 70;
 		solidArea.height = 70;
 
+		// Images are loaded by getPlayerImage() only when the player is drawn
 		setDefaultValues();
-		getPlayerImage();
 
 	}
 
 	public void setDefaultValues() {
 		worldX = 12 * 2;
 		worldY = 47 * 13;
+		prevWorldX = worldX;
+		prevWorldY = worldY;
 		speed = 10;
 		direction = "right";
 		playerPosX = worldX / gp.tileSize;
@@ -52,31 +57,31 @@ public class Player extends Entity {
 		try {
 			
 			//mag initialize nan mga images	
-			up1 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.up2.png"));
-			up2 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.up3.png"));
-			up3 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.up1.png"));
+			up1 = AssetLoader.readResource("/player/Meow.up2.png");
+			up2 = AssetLoader.readResource("/player/Meow.up3.png");
+			up3 = AssetLoader.readResource("/player/Meow.up1.png");
 
-			down1 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.down2.png"));
-			down2 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.down3.png"));
-			down3 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.down1.png"));
+			down1 = AssetLoader.readResource("/player/Meow.down2.png");
+			down2 = AssetLoader.readResource("/player/Meow.down3.png");
+			down3 = AssetLoader.readResource("/player/Meow.down1.png");
 
-			left1 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.left2.png"));
-			left2 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.left3.png"));
-			left3 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.left1.png"));
+			left1 = AssetLoader.readResource("/player/Meow.left2.png");
+			left2 = AssetLoader.readResource("/player/Meow.left3.png");
+			left3 = AssetLoader.readResource("/player/Meow.left1.png");
 
-			right1 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.right2.png"));
-			right2 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.right3.png"));
-			right3 = ImageIO.read(getClass().getResourceAsStream("/player/Meow.right1.png"));
+			right1 = AssetLoader.readResource("/player/Meow.right2.png");
+			right2 = AssetLoader.readResource("/player/Meow.right3.png");
+			right3 = AssetLoader.readResource("/player/Meow.right1.png");
 
-			catchLeft = ImageIO.read(getClass().getResourceAsStream("/player/meow.jumpleft.png"));
-			catchRight = ImageIO.read(getClass().getResourceAsStream("/player/meow.jumpright.png"));
+			catchLeft = AssetLoader.readResource("/player/meow.jumpleft.png");
+			catchRight = AssetLoader.readResource("/player/meow.jumpright.png");
 
-			light = ImageIO.read(getClass().getResourceAsStream("/tiles/lights.png"));
+			light = AssetLoader.readResource("/tiles/lights.png");
 
-			backGround = ImageIO.read(getClass().getResourceAsStream("/maps/backGround2.png"));
+			backGround = AssetLoader.readResource("/maps/backGround2.png");
 			
-			// Load heart image for lives display
-			heart = ImageIO.read(getClass().getResourceAsStream("/fallingObjects/Heart.png"));
+			// Heart image for lives display is shared with the sprite cache
+			heart = SpriteCache.get(SpriteCache.HEART);
 
 		} catch (IOException e) {
 			e.printStackTrace(); 
@@ -85,18 +90,21 @@ public class Player extends Entity {
 
 	public void update() {
 		
+		// Remember where we were so rendering can interpolate
+		prevWorldX = worldX;
+		prevWorldY = worldY;
+		
+		InputFrame input = gp.getInput();
+		
 		// ================================
 		//   CATCHING ANIMATION (TIMER-BASED)
 		// ================================
 		// Trigger catch only on key press (not held down)
-		if(keyH.spacePressed && !spaceWasPressed) {
+		if(input.pressed(InputFrame.KEY_SPACE)) {
 			catchTimer = 20; // Show catch animation for 20 frames (was 15, increased for better detection)
 			isCatching = true;
 		}
 		
-		// Update space key state for next frame
-		spaceWasPressed = keyH.spacePressed;
-		
 		// Countdown catch timer and keep catching state active
 		if(catchTimer > 0) {
 			catchTimer--;
@@ -110,7 +118,7 @@ public class Player extends Entity {
 		// ================================
 		int baseSpeed = 8;
 		speed = baseSpeed;
-		if (keyH.shiftKeyPressed) {
+		if (input.held(InputFrame.KEY_SHIFT)) {
 			speed = baseSpeed * 2;
 		}
 
@@ -120,11 +128,11 @@ public class Player extends Entity {
 		int velocityX = 0;
 		int velocityY = 0;
 
-		if (keyH.leftPressed) {
+		if (input.held(InputFrame.KEY_LEFT)) {
 			velocityX -= speed;
 			direction = "left";
 		}
-		if (keyH.rightPressed) {
+		if (input.held(InputFrame.KEY_RIGHT)) {
 			velocityX += speed;
 			direction = "right";
 		}
@@ -158,14 +166,26 @@ public class Player extends Entity {
 		}
 	}
 
-	public void draw(Graphics2D g2) {
+	// ========================================
+	// DRAW - Draw the player as captured in a render snapshot
+	// Only reads the snapshot and the (never modified) sprite images,
+	// so it is safe to call from the render thread
+	// @param snap - Published simulation state
+	// @param alpha - Interpolation between previous and current tick (0..1)
+	// ========================================
+	public void draw(Graphics2D g2, RenderSnapshot snap, float alpha) {
 
 		BufferedImage image = null;
+		int drawX = snap.playerX(alpha);
+		int drawY = snap.playerY(alpha);
+		String direction = snap.playerDirection;
+		int spriteNum = snap.playerSpriteNum;
+		boolean isCatching = snap.playerCatching;
 
 		// ================================
 		//   WALKING ANIMATION
 		// ================================
-		if (moving) {
+		if (snap.playerMoving) {
 			switch (direction) {
 
 			case "left":
@@ -192,7 +212,7 @@ public class Player extends Entity {
 		// ================================
 		//   IDLE ANIMATION
 		// ================================
-		if (!moving) {
+		if (!snap.playerMoving) {
 			switch (direction) {
 
 			case "left":
@@ -219,20 +239,20 @@ public class Player extends Entity {
 		// ================================
 		int catSize = 55;
 		g2.drawImage(backGround, 0, 0, gp.screenWidth, gp.screenHeight, null);
-		g2.drawImage(image, worldX, worldY, catSize * 2, catSize * 2, null);
+		g2.drawImage(image, drawX, drawY, catSize * 2, catSize * 2, null);
 		
 		// ================================
 		//   DEBUG: DRAW COLLISION BOXES
 		// ================================
 		// Draw player solid area (white rectangle)
-		g2.setColor(new Color(0, 0, 0, 0));
-		g2.drawRect(worldX + solidArea.x, worldY + solidArea.y, solidArea.width, solidArea.height);
+		g2.setColor(SOLID_AREA_COLOR);
+		g2.drawRect(drawX + solidArea.x, drawY + solidArea.y, solidArea.width, solidArea.height);
 		
 		// Draw catch radius when catching (red circle)
 		if (isCatching) {
 			int catchRadius = gp.tileSize * 2;
-			int catchX = worldX;
-			int catchY = worldY;
+			int catchX = drawX;
+			int catchY = drawY;
 			
 			if (direction.equals("left")) {
 				catchX -= 1;
@@ -240,7 +260,7 @@ public class Player extends Entity {
 				catchX += 1;
 			}
 			
-			g2.setColor(new Color(0, 0, 0, 100));
+			g2.setColor(CATCH_RADIUS_COLOR);
 			g2.drawOval(catchX , catchY, catchRadius, catchRadius);
 		}
 
@@ -256,7 +276,7 @@ public class Player extends Entity {
 		if (score < 0) {
 			score = 0;
 		}
-		System.out.println("Bomb hit! Lost " + points + " points. Score: " + score);
+		if (logEvents) System.out.println("Bomb hit! Lost " + points + " points. Score: " + score);
 	}
 	
 	// ========================================
@@ -267,7 +287,7 @@ public class Player extends Entity {
 		if (lives < 0) {
 			lives = 0; // Ensure lives don't go below 0
 		}
-		System.out.println("Lost a life! Lives remaining: " + lives);
+		if (logEvents) System.out.println("Lost a life! Lives remaining: " + lives);
 	}
 
 }
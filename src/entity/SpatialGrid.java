@@ -0,0 +1,104 @@
+package entity;
+
+/**
+ * SpatialGrid - Uniform grid broadphase for falling objects
+ * Objects are bucketed by the cell their position falls in (cells are one
+ * tile wide). A query only returns objects from cells overlapping the asked
+ * region, so exact catch/hit tests run on a handful of nearby objects
+ * instead of all of them. Building is a counting sort and allocates nothing.
+ */
+public class SpatialGrid {
+
+	private final int cellSize;
+	private final int cols;
+	private final int rows;
+
+	// cellStart[c]..cellStart[c + 1] is the range of items in cell c
+	private final int[] cellStart;
+	private final int[] cellFill;
+	private final int[] items;
+	private final int[] itemCell;
+
+	/**
+	 * Create a grid covering the play area
+	 *
+	 * @param cellSize Width and height of a cell (the tile size)
+	 * @param worldWidth Width of the area positions fall in
+	 * @param worldHeight Height of the area positions fall in
+	 * @param capacity Maximum number of objects per build
+	 */
+	public SpatialGrid(int cellSize, int worldWidth, int worldHeight, int capacity) {
+		this.cellSize = cellSize;
+		this.cols = worldWidth / cellSize + 1;
+		this.rows = worldHeight / cellSize + 1;
+		this.cellStart = new int[cols * rows + 1];
+		this.cellFill = new int[cols * rows];
+		this.items = new int[capacity];
+		this.itemCell = new int[capacity];
+	}
+
+	/**
+	 * Bucket the first count positions
+	 * Positions outside the area are clamped into the border cells
+	 */
+	public void build(int[] xs, int[] ys, int count) {
+		int cellCount = cols * rows;
+		for (int c = 0; c <= cellCount; c++) {
+			cellStart[c] = 0;
+		}
+
+		// Count objects per cell
+		for (int i = 0; i < count; i++) {
+			int cell = cellIndex(xs[i], ys[i]);
+			itemCell[i] = cell;
+			cellStart[cell + 1]++;
+		}
+
+		// Prefix sum into start offsets
+		for (int c = 0; c < cellCount; c++) {
+			cellStart[c + 1] += cellStart[c];
+			cellFill[c] = cellStart[c];
+		}
+
+		// Scatter object indices into their cells
+		for (int i = 0; i < count; i++) {
+			items[cellFill[itemCell[i]]++] = i;
+		}
+	}
+
+	/**
+	 * Collect every object whose cell overlaps a region (inclusive)
+	 * The result is a superset of the objects positioned inside the region
+	 *
+	 * @param out Receives object indices, must hold every possible match
+	 * @return number of indices written
+	 */
+	public int query(int minX, int minY, int maxX, int maxY, int[] out) {
+		int minCol = clampCol(Math.floorDiv(minX, cellSize));
+		int maxCol = clampCol(Math.floorDiv(maxX, cellSize));
+		int minRow = clampRow(Math.floorDiv(minY, cellSize));
+		int maxRow = clampRow(Math.floorDiv(maxY, cellSize));
+
+		int n = 0;
+		for (int row = minRow; row <= maxRow; row++) {
+			int first = cellStart[row * cols + minCol];
+			int last = cellStart[row * cols + maxCol + 1];
+			// Cells in a row are contiguous, so copy the whole span at once
+			System.arraycopy(items, first, out, n, last - first);
+			n += last - first;
+		}
+		return n;
+	}
+
+	private int cellIndex(int x, int y) {
+		return clampRow(Math.floorDiv(y, cellSize)) * cols + clampCol(Math.floorDiv(x, cellSize));
+	}
+
+	private int clampCol(int col) {
+		return col < 0 ? 0 : (col >= cols ? cols - 1 : col);
+	}
+
+	private int clampRow(int row) {
+		return row < 0 ? 0 : (row >= rows ? rows - 1 : row);
+	}
+}
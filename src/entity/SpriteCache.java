@@ -0,0 +1,63 @@
+package entity;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import main.AssetLoader;
+
+/**
+ * SpriteCache - Process-wide registry of shared sprite images
+ * Each image is decoded once, the first time any sprite is asked for, and
+ * then handed out by id. Entities keep the id, never their own copy.
+ */
+public final class SpriteCache {
+
+	// === SPRITE IDS ===
+	public static final int BOMB = 0;
+	public static final int CHICKEN = 1;
+	public static final int FISH = 2;
+	public static final int HOTDOG = 3;
+	public static final int HEALING_POTION = 4;
+	public static final int HEART = 5;
+
+	private static final String[] PATHS = {
+		"/fallingObjects/Bomb.png",
+		"/fallingObjects/Chicken.png",
+		"/fallingObjects/Fish.png",
+		"/fallingObjects/Hotdog.png",
+		"/fallingObjects/HealingPotion.png",
+		"/fallingObjects/Heart.png",
+	};
+
+	private SpriteCache() {}
+
+	// Class init is thread-safe and lazy, so the images are decoded exactly
+	// once, on whichever thread first needs a sprite
+	private static final class Holder {
+		static final BufferedImage[] SPRITES = loadAll();
+	}
+
+	private static BufferedImage[] loadAll() {
+		BufferedImage[] sprites = new BufferedImage[PATHS.length];
+		for (int i = 0; i < PATHS.length; i++) {
+			try {
+				sprites[i] = AssetLoader.readResource(PATHS[i]);
+			} catch (IllegalArgumentException e) {
+				System.out.println("Sprite not found: " + PATHS[i]);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return sprites;
+	}
+
+	/**
+	 * Get a shared sprite image
+	 *
+	 * @param id One of the sprite id constants
+	 * @return the decoded image, or null if it failed to load
+	 */
+	public static BufferedImage get(int id) {
+		return Holder.SPRITES[id];
+	}
+}
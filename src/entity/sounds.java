@@ -1,21 +1,26 @@
 package entity;
 
-import main.SoundHandler;
+import main.AudioBackend;
 
 /**
- * Sounds - Manages all game audio through SoundHandler
+ * Sounds - Manages all game audio through an AudioBackend
  * Load all your music and sound effects here with custom names
  */
 public class sounds {
     
-    private SoundHandler soundHandler;
+    private AudioBackend soundHandler;
+    
+    // Music track names (see main.MusicController)
+    public static final String MENU_MUSIC = "menu_music";
+    public static final String GAME_MUSIC = "background_music";
+    public static final String GAME_OVER_MUSIC = "game_over_music";
     
     /**
      * Constructor - Initialize the sound handler
      * 
-     * @param soundHandler Reference to the SoundHandler instance
+     * @param soundHandler Where the sounds go (speakers, nothing, or memory)
      */
-    public sounds(SoundHandler soundHandler) {
+    public sounds(AudioBackend soundHandler) {
         this.soundHandler = soundHandler;
         loadAllSounds();
     }
@@ -26,25 +31,54 @@ public class sounds {
      */
     private void loadAllSounds() {
         // === BACKGROUND MUSIC ===
-        soundHandler.loadSound("menu_music", "res/sounds/menumusic.WAV");
-        soundHandler.loadSound("game_over_music", "res/sounds/gameovermusic.WAV");
-        soundHandler.loadSound("background_music", "res/sounds/backgroundmusic.WAV");
-        soundHandler.loadSound("deadSound", "res/sounds/dead.WAV");
-        soundHandler.loadSound("coin_collect", "res/sounds/eating(1).wav");
+        // (Opened when looped, not decoded up front)
+        soundHandler.loadMusic(MENU_MUSIC, "res/sounds/menumusic.WAV");
+        soundHandler.loadMusic(GAME_OVER_MUSIC, "res/sounds/gameovermusic.WAV");
+        soundHandler.loadMusic(GAME_MUSIC, "res/sounds/backgroundmusic.WAV");
+
+        // === SOUND EFFECTS ===
+        // (Decoded once, with their clips opened now)
+        // Priority decides who keeps a voice when too many effects play at once;
+        // the last number is how many copies of the effect can overlap
+        soundHandler.loadSound("deadSound", "res/sounds/dead.WAV", AudioBackend.PRIORITY_HIGH, 1);
+        soundHandler.loadSound("coin_collect", "res/sounds/eating(1).WAV", AudioBackend.PRIORITY_LOW, 3);
 
-        soundHandler.loadSound("bomb_hit", "res/sounds/bomb.WAV");
+        soundHandler.loadSound("bomb_hit", "res/sounds/bomb.WAV", AudioBackend.PRIORITY_HIGH, 2);
 
         // === BUTTON SOUNDS ===
-        soundHandler.loadSound("button_hover", "res/sounds/selecting2.WAV");
-        soundHandler.loadSound("button_click", "res/sounds/click.WAV");
+        soundHandler.loadSound("button_hover", "res/sounds/selecting2.WAV", AudioBackend.PRIORITY_NORMAL, 1);
+        soundHandler.loadSound("button_click", "res/sounds/click.WAV", AudioBackend.PRIORITY_NORMAL, 1);
+    }
+
+    /**
+     * Fade from whatever music is playing to this track (from its start)
+     * 
+     * @param musicName MENU_MUSIC, GAME_MUSIC or GAME_OVER_MUSIC
+     */
+    public void fadeToMusic(String musicName) {
+        soundHandler.crossfadeMusic(musicName);
+    }
+
+    /**
+     * Pause a music track where it is
+     */
+    public void pauseMusic(String musicName) {
+        soundHandler.pauseSound(musicName);
+    }
+
+    /**
+     * Resume a paused music track from the same frame
+     */
+    public void resumeMusic(String musicName) {
+        soundHandler.resumeSound(musicName);
     }
 
     public void pauseBackgroundMusic() {
-    soundHandler.pauseSound("background_music");
+    soundHandler.pauseSound(GAME_MUSIC);
     }
 
     public void resumeBackgroundMusic() {
-        soundHandler.resumeSound("background_music");
+        soundHandler.resumeSound(GAME_MUSIC);
     }
 
     
@@ -52,21 +86,21 @@ public class sounds {
      * Play background music on loop
      */
     public void playBackgroundMusic() {
-        soundHandler.loopSound("background_music");
+        soundHandler.loopSound(GAME_MUSIC);
     }
     
     /**
      * Play menu music on loop
      */
     public void playMenuMusic() {
-        soundHandler.loopSound("menu_music");
+        soundHandler.loopSound(MENU_MUSIC);
     }
     
     /**
      * Play game over music on loop
      */
     public void playGameOverMusic() {
-        soundHandler.loopSound("game_over_music");
+        soundHandler.loopSound(GAME_OVER_MUSIC);
     }
     
     /**
@@ -125,6 +159,13 @@ public class sounds {
         soundHandler.playSound("deadSound");
     }
     
+    /**
+     * End of a game tick: hands the tick's sound requests to the audio thread
+     */
+    public void endTick() {
+        soundHandler.endTick();
+    }
+    
     /**
      * Stop all sounds
      */
@@ -0,0 +1,83 @@
+package main;
+
+/**
+ * AllocationCheck - Fails when steady-state gameplay allocates too much
+ * A bot plays headless; after a warm-up (class loading, JIT, arrays growing
+ * to their working size) every tick's input and simulation phases are
+ * charged for the bytes the game thread allocated in them. If the average
+ * over the measured ticks is above the budget the run exits with status 1,
+ * so it can guard a build script or CI job against new per-tick garbage.
+ *
+ *   java -cp bin main.AllocationCheck
+ *
+ * Options (system properties):
+ *   catcher.seed              Seed for the game (default 1, so runs compare)
+ *   catcher.allocWarmupTicks  Ticks played before measuring (default 1 minute of play)
+ *   catcher.allocTicks        Ticks measured (default 10 minutes of play)
+ *   catcher.allocBudget       Allowed bytes per tick, input and sim together (default 64)
+ *
+ * Exits 2 if the JVM cannot count allocations per thread.
+ */
+public class AllocationCheck {
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		long seed = Long.getLong("catcher.seed", 1L);
+		long warmupTicks = Long.getLong("catcher.allocWarmupTicks", 60L * 60);
+		long measuredTicks = Long.getLong("catcher.allocTicks", 60L * 60 * 10);
+		long budget = Long.getLong("catcher.allocBudget", 64L);
+
+		if (!AllocationStats.isSupported()) {
+			System.out.println("Allocation check: per-thread allocation counting is not supported on this JVM");
+			System.exit(2);
+		}
+
+		GameWorld world = HeadlessGame.createWorld(new NullSoundHandler(), seed);
+		InputSource bot = new BotPlayer(world);
+		AllocationStats stats = new AllocationStats();
+		world.startGame();
+
+		// Warm up, then measure
+		play(world, bot, warmupTicks, null);
+		long restarts = play(world, bot, measuredTicks, stats);
+
+		double perTick = stats.input.getBytesPerSample() + stats.simulation.getBytesPerSample();
+		System.out.println(AllocationStats.HEADER + "  (bytes)");
+		System.out.println(AllocationStats.row(stats.input));
+		System.out.println(AllocationStats.row(stats.simulation));
+		System.out.printf("Seed %d, %d ticks after %d warm-up ticks, %d restarts after game over%n",
+				seed, measuredTicks, warmupTicks, restarts);
+
+		if (perTick > budget) {
+			System.out.printf("Allocation check: FAILED, %.1f bytes/tick is over the budget of %d%n", perTick, budget);
+			System.exit(1);
+		}
+		System.out.printf("Allocation check: passed, %.1f bytes/tick (budget %d)%n", perTick, budget);
+	}
+
+	/**
+	 * Play ticks, starting a new round whenever the bot loses
+	 * Restarts happen outside the measured phases
+	 *
+	 * @param stats Receives input/sim bytes per tick (null = don't measure)
+	 * @return how many times the game had to be restarted
+	 */
+	private static long play(GameWorld world, InputSource bot, long ticks, AllocationStats stats) {
+		long restarts = 0;
+		for (long t = 0; t < ticks; t++) {
+			if (world.stateManager.getGameState() != GameStateManager.GAME_STATE) {
+				world.startGame();
+				restarts++;
+			}
+			long start = AllocationStats.currentThreadBytes();
+			world.pollInput(bot);
+			long inputDone = AllocationStats.currentThreadBytes();
+			world.tick();
+			if (stats != null) {
+				stats.input.record(inputDone - start);
+				stats.simulation.record(AllocationStats.currentThreadBytes() - inputDone);
+			}
+		}
+		return restarts;
+	}
+}
@@ -0,0 +1,100 @@
+package main;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * AllocationStats - Bytes allocated per tick (or frame), split by phase
+ * Reads the HotSpot per-thread allocation counter before and after each
+ * phase, so every phase is charged only for what its own thread allocated.
+ * Same phases as FrameStats: input and sim on the game thread, render and
+ * present on the render thread.
+ *
+ * The counter is a HotSpot extension; on other JVMs isSupported() is false
+ * and nothing is recorded.
+ */
+public final class AllocationStats {
+
+	private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+	public final Phase input = new Phase("input");
+	public final Phase simulation = new Phase("sim");
+	public final Phase render = new Phase("render");
+	public final Phase present = new Phase("present");
+	final Phase[] phases = { input, simulation, render, present };
+
+	public static final String HEADER = String.format("%-8s %9s %11s %9s %12s", "phase", "samples", "bytes/tick", "max", "total");
+
+	/**
+	 * @return true if this JVM can count allocated bytes per thread
+	 */
+	public static boolean isSupported() {
+		return THREADS != null;
+	}
+
+	/**
+	 * @return bytes allocated so far by the calling thread (0 if unsupported)
+	 */
+	public static long currentThreadBytes() {
+		return THREADS != null ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	// The allocation counter lives on the HotSpot ThreadMXBean only
+	private static com.sun.management.ThreadMXBean allocationBean() {
+		try {
+			java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			if (threads instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+				if (bean.isThreadAllocatedMemorySupported()) {
+					bean.setThreadAllocatedMemoryEnabled(true);
+					return bean;
+				}
+			}
+		} catch (LinkageError | UnsupportedOperationException e) {
+			// Not a HotSpot JVM
+		}
+		return null;
+	}
+
+	/**
+	 * One table row for a phase
+	 */
+	public static String row(Phase p) {
+		return String.format("%-8s %9d %11.1f %9d %12d", p.getName(), p.getSamples(), p.getBytesPerSample(), p.getMax(), p.getTotal());
+	}
+
+	/**
+	 * Allocation totals for one phase (single writer, any reader)
+	 */
+	public static final class Phase {
+		private final String name;
+		private volatile long samples = 0;
+		private volatile long total = 0;
+		private volatile long max = 0;
+
+		Phase(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Record the bytes one tick (or frame) of this phase allocated
+		 */
+		public void record(long bytes) {
+			if (bytes < 0) bytes = 0;
+			total += bytes;
+			if (bytes > max) max = bytes;
+			samples++;
+		}
+
+		public void reset() {
+			samples = 0;
+			total = 0;
+			max = 0;
+		}
+
+		public String getName() { return name; }
+		public long getSamples() { return samples; }
+		public long getTotal() { return total; }
+		public long getMax() { return max; }
+		public double getBytesPerSample() { long n = samples; return n == 0 ? 0 : (double) total / n; }
+	}
+}
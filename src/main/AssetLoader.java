@@ -0,0 +1,66 @@
+package main;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * AssetLoader - Reads images from files or the classpath
+ * Behaves like ImageIO.read, and records a GameEvents.AssetLoad for each
+ * image so slow asset loads show up in flight recordings.
+ */
+public final class AssetLoader {
+
+	private AssetLoader() {}
+
+	/**
+	 * Read an image file (e.g. "res/maps/bg.png")
+	 *
+	 * @return the image, or null if no reader understands the file
+	 */
+	public static BufferedImage readImage(String filePath) throws IOException {
+		GameEvents.AssetLoad event = GameEvents.AssetLoad.start();
+		File file = new File(filePath);
+		BufferedImage image = ImageIO.read(file);
+		if (event != null && event.shouldCommit()) {
+			commit(event, filePath, file.length(), image);
+		}
+		return image;
+	}
+
+	/**
+	 * Read an image from the classpath (e.g. "/player/Meow.up1.png")
+	 *
+	 * @throws IllegalArgumentException if there is no such resource, as ImageIO.read(null) does
+	 */
+	public static BufferedImage readResource(String resource) throws IOException {
+		GameEvents.AssetLoad event = GameEvents.AssetLoad.start();
+		InputStream in = AssetLoader.class.getResourceAsStream(resource);
+		if (in == null) {
+			throw new IllegalArgumentException("Resource not found: " + resource);
+		}
+		byte[] data;
+		try (in) {
+			data = in.readAllBytes();
+		}
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+		if (event != null && event.shouldCommit()) {
+			commit(event, resource, data.length, image);
+		}
+		return image;
+	}
+
+	private static void commit(GameEvents.AssetLoad event, String path, long fileSize, BufferedImage image) {
+		event.path = path;
+		event.fileSize = fileSize;
+		if (image != null) {
+			event.width = image.getWidth();
+			event.height = image.getHeight();
+		}
+		event.commit();
+	}
+}
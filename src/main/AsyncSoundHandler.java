@@ -0,0 +1,291 @@
+package main;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AsyncSoundHandler - Runs another AudioBackend on its own audio thread
+ * Every request (load, play, loop, crossfade, stop, pause, volume...) is packed into a
+ * long and offered to a bounded CommandQueue; the "audio-commands" thread
+ * takes them off and makes the real call. Whatever Java Sound does there
+ * (opening, stopping, closing lines) can block only that thread, and the
+ * game thread's cost for a sound is one enqueue.
+ *
+ *  - Duplicate plays of a sound in the same tick are coalesced into one
+ *    (ten items caught in one tick make one "coin" sound, not ten)
+ *  - A full queue drops the command and counts it (-Dcatcher.audioQueue=...)
+ *  - endTick() wakes the audio thread once per tick; it also checks every
+ *    few milliseconds on its own, and runs the delegate's endTick() each
+ *    time it wakes
+ *
+ * Sound names become ids the first time they are seen, so after that a
+ * request doesn't allocate.
+ */
+public class AsyncSoundHandler implements AudioBackend, Runnable {
+
+	private static final int CMD_LOAD_SOUND = 1;
+	private static final int CMD_LOAD_MUSIC = 2;
+	private static final int CMD_PLAY = 3;
+	private static final int CMD_LOOP = 4;
+	private static final int CMD_STOP = 5;
+	private static final int CMD_STOP_ALL = 6;
+	private static final int CMD_PAUSE = 7;
+	private static final int CMD_RESUME = 8;
+	private static final int CMD_VOLUME = 9;
+	private static final int CMD_UNLOAD = 10;
+	private static final int CMD_UNLOAD_ALL = 11;
+	private static final int CMD_CROSSFADE = 12;
+
+	// Load argument meaning "the backend's default priority and limit"
+	private static final int DEFAULT_VOICES = -1;
+
+	// Most distinct sound names (ids index the coalescing table)
+	private static final int MAX_NAMES = 256;
+	private static final long IDLE_WAIT_NANOS = 5_000_000L;
+
+	private final AudioBackend delegate;
+	private final CommandQueue commands = new CommandQueue(
+			Math.max(16, Integer.getInteger("catcher.audioQueue", 256)));
+	private final Thread thread;
+
+	// Sound names and files by id, published copy-on-write
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+	private volatile String[] names = new String[0];
+	private volatile String[] paths = new String[0];
+
+	// Game thread: tick counter and the tick each sound was last played in
+	private long tick = 1;
+	private final long[] playedInTick = new long[MAX_NAMES];
+	private boolean pending = false;
+	private long coalesced = 0;
+	private float masterVolume;
+
+	// Audio thread (playing: 1 per sound id it last saw playing, for any thread to read)
+	private volatile long executed = 0;
+	private final AtomicIntegerArray playing = new AtomicIntegerArray(MAX_NAMES);
+
+	/**
+	 * @param delegate The handler that actually plays (only ever called from the audio thread)
+	 */
+	public AsyncSoundHandler(AudioBackend delegate) {
+		this.delegate = delegate;
+		this.masterVolume = delegate.getMasterVolume();
+		thread = new Thread(this, "audio-commands");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY - 1);
+		thread.start();
+	}
+
+	// ========================================
+	// GAME SIDE
+	// ========================================
+	@Override
+	public void loadSound(String soundName, String filePath) {
+		send(CMD_LOAD_SOUND, register(soundName, filePath), DEFAULT_VOICES);
+	}
+
+	@Override
+	public void loadSound(String soundName, String filePath, int priority, int maxVoices) {
+		send(CMD_LOAD_SOUND, register(soundName, filePath), (priority << 16) | (maxVoices & 0xFFFF));
+	}
+
+	@Override
+	public void loadMusic(String soundName, String filePath) {
+		send(CMD_LOAD_MUSIC, register(soundName, filePath), 0);
+	}
+
+	@Override
+	public void playSound(String soundName) {
+		int id = idOf(soundName);
+		if (id < MAX_NAMES && playedInTick[id] == tick) {
+			coalesced++;
+			return;
+		}
+		// Marked only once queued: a play dropped by a full queue mustn't
+		// make the next play of the tick look like a duplicate
+		if (send(CMD_PLAY, id, 0) && id < MAX_NAMES) {
+			playedInTick[id] = tick;
+		}
+	}
+
+	@Override
+	public void loopSound(String soundName) { send(CMD_LOOP, idOf(soundName), 0); }
+	@Override
+	public void crossfadeMusic(String soundName) { send(CMD_CROSSFADE, idOf(soundName), 0); }
+	@Override
+	public void stopSound(String soundName) { send(CMD_STOP, idOf(soundName), 0); }
+	@Override
+	public void stopAllSounds() { send(CMD_STOP_ALL, 0, 0); }
+	@Override
+	public void pauseSound(String soundName) { send(CMD_PAUSE, idOf(soundName), 0); }
+	@Override
+	public void resumeSound(String soundName) { send(CMD_RESUME, idOf(soundName), 0); }
+
+	@Override
+	public void setMasterVolume(float volume) {
+		masterVolume = Math.max(0.0f, Math.min(1.0f, volume));
+		send(CMD_VOLUME, 0, Float.floatToIntBits(masterVolume));
+	}
+
+	@Override
+	public float getMasterVolume() {
+		return masterVolume;
+	}
+
+	@Override
+	public void unloadSound(String soundName) { send(CMD_UNLOAD, idOf(soundName), 0); }
+	@Override
+	public void unloadAllSounds() { send(CMD_UNLOAD_ALL, 0, 0); }
+
+	/**
+	 * A sound counts as loaded once its load has been requested
+	 */
+	@Override
+	public boolean isSoundLoaded(String soundName) {
+		Integer id = ids.get(soundName);
+		return id != null && paths[id] != null;
+	}
+
+	/**
+	 * As the audio thread last saw it (every pass, so a few ms old at most;
+	 * requests still queued don't show)
+	 */
+	@Override
+	public boolean isSoundPlaying(String soundName) {
+		Integer id = ids.get(soundName);
+		return id != null && id < MAX_NAMES && playing.get(id) != 0;
+	}
+
+	/**
+	 * Wake the audio thread for this tick's requests, and start a new tick
+	 * for coalescing
+	 */
+	@Override
+	public void endTick() {
+		tick++;
+		if (pending) {
+			pending = false;
+			LockSupport.unpark(thread);
+		}
+	}
+
+	// false if the queue was full (the command is dropped and counted)
+	private boolean send(int op, int id, int argument) {
+		if (commands.offer(((long) op << 56) | ((long) (id & 0xFFFFFF) << 32) | (argument & 0xFFFFFFFFL))) {
+			pending = true;
+			return true;
+		}
+		return false;
+	}
+
+	private int idOf(String soundName) {
+		Integer id = ids.get(soundName);
+		return id != null ? id : register(soundName, null);
+	}
+
+	// Give a name an id (once); a file path marks it as loaded
+	private synchronized int register(String soundName, String filePath) {
+		Integer known = ids.get(soundName);
+		int id = known != null ? known : names.length;
+		String[] newNames = Arrays.copyOf(names, Math.max(names.length, id + 1));
+		String[] newPaths = Arrays.copyOf(paths, newNames.length);
+		newNames[id] = soundName;
+		if (filePath != null) {
+			newPaths[id] = filePath;
+		}
+		paths = newPaths;
+		names = newNames;
+		ids.put(soundName, id);
+		return id;
+	}
+
+	// ========================================
+	// AUDIO THREAD
+	// ========================================
+	@Override
+	public void run() {
+		long[] drained = new long[commands.capacity()];
+		while (true) {
+			int n = commands.drain(drained);
+			for (int c = 0; c < n; c++) {
+				execute(drained[c]);
+			}
+			executed += n;
+			try {
+				delegate.endTick();
+				publishPlaying();
+			} catch (RuntimeException e) {
+				System.out.println("Error in audio upkeep: " + e);
+			}
+			if (n == 0) {
+				LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+			}
+		}
+	}
+
+	// Ask the delegate what's playing here, so other threads never call it
+	private void publishPlaying() {
+		String[] known = names;
+		for (int id = 0; id < Math.min(known.length, MAX_NAMES); id++) {
+			playing.lazySet(id, known[id] != null && delegate.isSoundPlaying(known[id]) ? 1 : 0);
+		}
+	}
+
+	private void execute(long command) {
+		int op = (int) (command >>> 56);
+		int id = (int) (command >>> 32) & 0xFFFFFF;
+		String name = id < names.length ? names[id] : null;
+		try {
+			switch (op) {
+				case CMD_LOAD_SOUND:
+					if ((int) command == DEFAULT_VOICES) {
+						delegate.loadSound(name, paths[id]);
+					} else {
+						delegate.loadSound(name, paths[id], (int) command >> 16, (int) command & 0xFFFF);
+					}
+					break;
+				case CMD_LOAD_MUSIC: delegate.loadMusic(name, paths[id]); break;
+				case CMD_PLAY: delegate.playSound(name); break;
+				case CMD_LOOP: delegate.loopSound(name); break;
+				case CMD_CROSSFADE: delegate.crossfadeMusic(name); break;
+				case CMD_STOP: delegate.stopSound(name); break;
+				case CMD_STOP_ALL: delegate.stopAllSounds(); break;
+				case CMD_PAUSE: delegate.pauseSound(name); break;
+				case CMD_RESUME: delegate.resumeSound(name); break;
+				case CMD_VOLUME: delegate.setMasterVolume(Float.intBitsToFloat((int) command)); break;
+				case CMD_UNLOAD: delegate.unloadSound(name); break;
+				case CMD_UNLOAD_ALL: delegate.unloadAllSounds(); break;
+				default: break;
+			}
+		} catch (RuntimeException e) {
+			// One bad request mustn't take the audio thread down
+			System.out.println("Error running audio command " + op + " for '" + name + "': " + e);
+		}
+	}
+
+	// ===== QUEUE STATS =====
+
+	/** @return the handler doing the playing */
+	public AudioBackend getDelegate() { return delegate; }
+	/** @return requests dropped because the queue was full */
+	public long getDroppedCommands() { return commands.getDropped(); }
+	/** @return plays folded into an identical play in the same tick */
+	public long getCoalescedPlays() { return coalesced; }
+	/** @return requests the audio thread has carried out */
+	public long getExecutedCommands() { return executed; }
+
+	@Override
+	public long getVoiceSteals() { return delegate.getVoiceSteals(); }
+	@Override
+	public long getCopyRestarts() { return delegate.getCopyRestarts(); }
+	@Override
+	public long getVoiceRejects() { return delegate.getVoiceRejects(); }
+
+	@Override
+	public String getStatsSummary() {
+		return delegate.getStatsSummary() + String.format("  | queue: done %d  coalesced %d  dropped %d",
+				executed, coalesced, commands.getDropped());
+	}
+}
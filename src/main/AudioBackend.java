@@ -0,0 +1,93 @@
+package main;
+
+/**
+ * AudioBackend - Where the game's sounds go
+ * entity.sounds only talks to this interface, so the same game can play
+ * on speakers, on nothing, or into memory:
+ *  - SoundHandler:        Java Sound, a pool of clips per effect
+ *  - MixerSoundHandler:   Java Sound, mixed in software onto one line
+ *  - NullSoundHandler:    plays nothing, only counts requests
+ *  - CaptureAudioBackend: records every request with its tick and mixes
+ *                         the sound into memory, for tests without a sound card
+ *  - AsyncSoundHandler:   runs another backend on its own audio thread
+ *
+ * The window picks one with -Dcatcher.audio=clips|mixer|null|capture
+ * (see GamePanel); headless runs default to null.
+ */
+public interface AudioBackend {
+
+	// Voice priorities (higher takes voices from lower)
+	int PRIORITY_LOW = 0;
+	int PRIORITY_NORMAL = 1;
+	int PRIORITY_HIGH = 2;
+
+	/**
+	 * Load a sound effect with the backend's default priority and voice limit
+	 */
+	void loadSound(String soundName, String filePath);
+
+	/**
+	 * Load a sound effect with its voice priority and limit
+	 *
+	 * @param priority PRIORITY_LOW, PRIORITY_NORMAL or PRIORITY_HIGH
+	 * @param maxVoices Most copies of this sound playing at once
+	 */
+	void loadSound(String soundName, String filePath, int priority, int maxVoices);
+
+	/**
+	 * Register a music track (streamed when played, never loaded whole)
+	 */
+	void loadMusic(String soundName, String filePath);
+
+	void playSound(String soundName);
+
+	void loopSound(String soundName);
+
+	/**
+	 * Switch music tracks, fading the new one in over the old one
+	 */
+	void crossfadeMusic(String soundName);
+
+	void stopSound(String soundName);
+
+	void stopAllSounds();
+
+	void pauseSound(String soundName);
+
+	void resumeSound(String soundName);
+
+	/**
+	 * @param volume Volume level (0.0 to 1.0)
+	 */
+	void setMasterVolume(float volume);
+
+	float getMasterVolume();
+
+	boolean isSoundLoaded(String soundName);
+
+	boolean isSoundPlaying(String soundName);
+
+	void unloadSound(String soundName);
+
+	void unloadAllSounds();
+
+	/**
+	 * Called by the game loop after every tick
+	 */
+	default void endTick() {
+	}
+
+	/** @return plays that stopped a voice of another sound to stay within the voice budget */
+	long getVoiceSteals();
+
+	/** @return plays that restarted the sound's own oldest copy (it was at its voice limit) */
+	long getCopyRestarts();
+
+	/** @return plays dropped because every playing voice outranked them */
+	long getVoiceRejects();
+
+	/**
+	 * @return one line of audio counters for the frame stats
+	 */
+	String getStatsSummary();
+}
@@ -0,0 +1,16 @@
+package main;
+
+/**
+ * AudioSource - Something that produces audio in SoftwareMixer.FORMAT
+ * Called repeatedly by one output thread (see MixerOutput), which sums
+ * all its sources onto a single line.
+ */
+public interface AudioSource {
+
+	/**
+	 * Write the next frames (interleaved stereo), overwriting out
+	 *
+	 * @param out Receives frames * SoftwareMixer.CHANNELS samples
+	 */
+	void mix(short[] out, int frames);
+}
@@ -0,0 +1,122 @@
+package main;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * BatchRunner - Plays many headless bot games in parallel and summarizes them
+ * Game i uses seed (catcher.seed + i), so a batch is repeatable and any
+ * single game can be re-run alone with HeadlessGame. Games share nothing,
+ * so throughput grows with the number of worker threads.
+ *
+ *   java -cp bin main.BatchRunner
+ *
+ * Options (system properties):
+ *   catcher.games      Number of games to play (default 1000)
+ *   catcher.seed       Seed of the first game (default 1)
+ *   catcher.threads    Worker threads (default: all cores)
+ *   catcher.maxTicks   Per-game tick limit (default 1 hour of play)
+ *   catcher.batchCsv   Also write one line per game to this file
+ */
+public class BatchRunner {
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+		System.setProperty("java.awt.headless", "true");
+		int games = Integer.getInteger("catcher.games", 1000);
+		long baseSeed = Long.getLong("catcher.seed", 1L);
+		int threads = Integer.getInteger("catcher.threads", Runtime.getRuntime().availableProcessors());
+		long maxTicks = Long.getLong("catcher.maxTicks", HeadlessGame.DEFAULT_MAX_TICKS);
+		String csvPath = System.getProperty("catcher.batchCsv");
+
+		System.out.printf("Playing %d games on %d threads...%n", games, threads);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		long startTime = System.nanoTime();
+		GameResult[] results;
+		try {
+			results = pool.submit(() -> IntStream.range(0, games).parallel()
+					.mapToObj(i -> playOne(baseSeed + i, maxTicks))
+					.toArray(GameResult[]::new)).get();
+		} finally {
+			pool.shutdown();
+		}
+		long elapsed = System.nanoTime() - startTime;
+
+		printSummary(results, threads, elapsed);
+		if (csvPath != null) {
+			writeCsv(results, csvPath);
+			System.out.println("Per-game results written to " + csvPath);
+		}
+	}
+
+	private static GameResult playOne(long seed, long maxTicks) {
+		GameWorld world = HeadlessGame.createWorld(new NullSoundHandler(), seed);
+		return HeadlessGame.play(world, new BotPlayer(world), seed, maxTicks);
+	}
+
+	// =========================
+	// REPORT
+	// =========================
+	private static void printSummary(GameResult[] results, int threads, long elapsedNanos) {
+		int n = results.length;
+		double[] scores = new double[n];
+		double[] lifetimes = new double[n];
+		double[] catchRates = new double[n];
+		long totalTicks = 0;
+		int timedOut = 0;
+		for (int i = 0; i < n; i++) {
+			GameResult r = results[i];
+			scores[i] = r.score;
+			lifetimes[i] = r.ticks / 60.0; // Seconds of game time
+			catchRates[i] = r.catchRate() * 100;
+			totalTicks += r.ticks;
+			if (!r.gameOver) timedOut++;
+		}
+
+		double seconds = elapsedNanos / 1e9;
+		System.out.println();
+		System.out.printf("Games:       %d (%d hit the tick limit)%n", n, timedOut);
+		System.out.printf("Wall time:   %.2f s on %d threads%n", seconds, threads);
+		System.out.printf("Throughput:  %.1f games/s, %.0f ticks/s (%.0f ticks/s per thread)%n",
+				n / seconds, totalTicks / seconds, totalTicks / seconds / threads);
+		System.out.println();
+		System.out.printf("%-16s %10s %10s %10s %10s %10s %10s %10s%n",
+				"", "mean", "min", "p10", "p50", "p90", "p99", "max");
+		printRow("score", scores);
+		printRow("lifetime (s)", lifetimes);
+		printRow("catch rate (%)", catchRates);
+	}
+
+	private static void printRow(String name, double[] values) {
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		double mean = 0;
+		for (double v : sorted) mean += v;
+		mean = sorted.length == 0 ? 0 : mean / sorted.length;
+		System.out.printf("%-16s %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n", name, mean,
+				percentile(sorted, 0), percentile(sorted, 10), percentile(sorted, 50),
+				percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+	}
+
+	// Nearest-rank percentile of an already sorted array
+	private static double percentile(double[] sorted, double p) {
+		if (sorted.length == 0) return 0;
+		int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+		return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+	}
+
+	private static void writeCsv(GameResult[] results, String path) throws IOException {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path)))) {
+			out.println("seed,score,ticks,food_caught,food_missed,bomb_hits,game_over");
+			for (GameResult r : results) {
+				out.println(r.seed + "," + r.score + "," + r.ticks + "," + r.foodCaught + ","
+						+ r.foodMissed + "," + r.bombHits + "," + r.gameOver);
+			}
+		}
+	}
+}
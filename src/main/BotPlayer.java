@@ -0,0 +1,114 @@
+package main;
+
+import entity.FallingEntity;
+import entity.FallingEntityStore;
+import entity.Player;
+
+/**
+ * BotPlayer - Simple autopilot that presses keys for the player
+ * Each tick it steps away from bombs about to land on the cat, otherwise
+ * walks towards the lowest food still in reach, and taps space whenever
+ * food (and no bomb) is inside the catch radius. Allocates nothing, so it
+ * doesn't show up in allocation measurements.
+ */
+public class BotPlayer implements InputSource {
+
+	// How far above the player a bomb is still worth dodging
+	private static final int DODGE_HEIGHT = 200;
+	// Gap kept from the side of a falling bomb
+	private static final int DODGE_MARGIN = 32;
+	// Distance beyond which the bot sprints
+	private static final int SPRINT_DISTANCE = 150;
+	// How far a bomb can fall while a catch is still active (20 ticks at top fall speed)
+	private static final int CATCH_LOOKAHEAD = 20 * FallingEntity.BASE_FALL_SPEED * 10;
+
+	private final GameWorld world;
+
+	public BotPlayer(GameWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * Decide this tick's keys from what is on screen
+	 */
+	@Override
+	public void nextTick(KeyHandler keys, MouseHandler mouse) {
+		Player player = world.player;
+		FallingEntityStore store = world.fallingEntities;
+
+		// Catch center and hit box, in object-position space (see CollisionKernel)
+		int catchRadius = world.tileSize + 20;
+		int radiusSquared = catchRadius * catchRadius;
+		int centerX = player.worldX + (player.solidArea.width / 2)
+				- (FallingEntity.SOLID_WIDTH / 2) - FallingEntity.SOLID_X;
+		int centerY = player.worldY + (player.solidArea.height / 2)
+				- (FallingEntity.SOLID_HEIGHT / 2) - FallingEntity.SOLID_Y;
+		int playerLeft = player.worldX + player.solidArea.x;
+		int hitMinX = playerLeft - FallingEntity.SOLID_X - FallingEntity.SOLID_WIDTH;
+		int hitMaxX = playerLeft + player.solidArea.width - FallingEntity.SOLID_X;
+		int hitMaxY = player.worldY + player.solidArea.y + player.solidArea.height - FallingEntity.SOLID_Y;
+
+		int targetX = -1;
+		int targetY = Integer.MIN_VALUE;
+		int dodge = 0; // -1 = go left, +1 = go right
+		boolean foodInRange = false;
+		boolean bombInRange = false;
+		boolean blockLeft = false;
+		boolean blockRight = false;
+
+		for (int i = 0; i < store.size(); i++) {
+			int x = store.x[i];
+			int y = store.y[i];
+			int dx = x - centerX;
+			int dy = y - centerY;
+			boolean inRange = dx * dx + dy * dy < radiusSquared;
+
+			if (store.isBomb(i)) {
+				// A catch lasts a while, so also avoid bombs that will fall into range during it
+				bombInRange |= dx * dx < radiusSquared && dy < catchRadius && dy + CATCH_LOOKAHEAD > -catchRadius;
+				if (y > hitMaxY - DODGE_HEIGHT - player.solidArea.height && y < hitMaxY) {
+					if (x > hitMinX && x < hitMaxX) {
+						// About to land on the cat: step to whichever side is closer
+						dodge = x > centerX ? -1 : 1;
+					} else if (x > hitMinX - DODGE_MARGIN && x <= hitMinX) {
+						blockLeft = true; // Just off to the left, don't walk into it
+					} else if (x >= hitMaxX && x < hitMaxX + DODGE_MARGIN) {
+						blockRight = true;
+					}
+				}
+				continue;
+			}
+
+			foodInRange |= inRange;
+			// Lowest food that hasn't already dropped past the catch area
+			if (y > targetY && y < centerY + catchRadius) {
+				targetY = y;
+				targetX = x;
+			}
+		}
+
+		int move = 0;
+		int distance = 0;
+		if (dodge < 0 && blockLeft || dodge > 0 && blockRight) {
+			dodge = -dodge; // Boxed in on that side, squeeze out the other way
+		}
+		if (dodge != 0) {
+			move = dodge;
+			distance = SPRINT_DISTANCE;
+		} else if (targetX >= 0) {
+			distance = Math.abs(targetX - centerX);
+			if (distance > player.speed) {
+				move = targetX > centerX ? 1 : -1;
+			}
+			if (move < 0 && blockLeft || move > 0 && blockRight) {
+				move = 0;
+			}
+		}
+
+		keys.leftPressed = move < 0;
+		keys.rightPressed = move > 0;
+		keys.shiftKeyPressed = distance >= SPRINT_DISTANCE;
+		// Catches trigger on the press, so release on alternate ticks
+		keys.spacePressed = foodInRange && !bombInRange && !keys.spacePressed;
+	}
+}
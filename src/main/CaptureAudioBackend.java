@@ -0,0 +1,336 @@
+package main;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * CaptureAudioBackend - Plays the game's audio into memory
+ * Every request is recorded as an event with the tick it was made in, the
+ * time, and the output frame it lands on. Sounds are decoded and mixed
+ * exactly as MixerSoundHandler would (same SoftwareMixer, MusicPlayer,
+ * voice limits and ducking), but endTick() mixes one tick's worth of
+ * frames into a buffer instead of a line, so the captured PCM lines up
+ * with the simulation tick for tick, on any machine, at any speed.
+ *
+ * Tests and soak runs can then check which cues fired on which tick and
+ * find where each one becomes audible in the mix (onsetFrame).
+ *
+ *  -Dcatcher.captureSeconds=...  PCM kept (default 60; later audio is mixed but not stored)
+ *  -Dcatcher.captureEvents=...   events kept (default 65536)
+ */
+public class CaptureAudioBackend implements AudioBackend {
+
+	// Event types
+	public static final int EVENT_PLAY = 1;
+	public static final int EVENT_LOOP = 2;
+	public static final int EVENT_CROSSFADE = 3;
+	public static final int EVENT_STOP = 4;
+	public static final int EVENT_STOP_ALL = 5;
+	public static final int EVENT_PAUSE = 6;
+	public static final int EVENT_RESUME = 7;
+
+	// The simulation runs at a fixed 60 ticks a second
+	public static final int TICKS_PER_SECOND = 60;
+	public static final int FRAMES_PER_TICK = (int) SoftwareMixer.FORMAT.getFrameRate() / TICKS_PER_SECOND;
+
+	private final int voiceBudget = Math.max(1, Integer.getInteger("catcher.voiceBudget", 16));
+	private final int fadeFrames = MusicPlayer.framesOf(Integer.getInteger("catcher.musicFadeMillis", 800));
+	private final SoftwareMixer mixer = new SoftwareMixer(voiceBudget, 1024);
+	private final MusicPlayer music = new MusicPlayer(2048);
+
+	private final Map<String, Integer> soundIds = new HashMap<>();
+	private final Map<String, Integer> musicTracks = new HashMap<>();
+	private float masterVolume = 0.8f;
+
+	// Events, in request order
+	private final long[] eventTick;
+	private final long[] eventNanos;
+	private final long[] eventFrame;
+	private final int[] eventType;
+	private final String[] eventName;
+	private int eventCount = 0;
+	private long eventsDropped = 0;
+
+	// Mixed output
+	private final short[] pcm;
+	private final short[] block = new short[FRAMES_PER_TICK * SoftwareMixer.CHANNELS];
+	private final short[] musicBlock = new short[block.length];
+	private long framesMixed = 0;
+	private long tick = 0;
+
+	public CaptureAudioBackend() {
+		int events = Math.max(16, Integer.getInteger("catcher.captureEvents", 65536));
+		eventTick = new long[events];
+		eventNanos = new long[events];
+		eventFrame = new long[events];
+		eventType = new int[events];
+		eventName = new String[events];
+		int seconds = Math.max(0, Integer.getInteger("catcher.captureSeconds", 60));
+		pcm = new short[seconds * (int) SoftwareMixer.FORMAT.getFrameRate() * SoftwareMixer.CHANNELS];
+		mixer.setMasterGain(masterVolume);
+		music.setGain(masterVolume);
+	}
+
+	// ========================================
+	// LOADING
+	// ========================================
+	@Override
+	public void loadSound(String soundName, String filePath) {
+		loadSound(soundName, filePath, PRIORITY_NORMAL, 4);
+	}
+
+	@Override
+	public void loadSound(String soundName, String filePath, int priority, int maxVoices) {
+		if (!new File(filePath).exists()) {
+			System.out.println("Sound file not found: " + filePath);
+			return;
+		}
+		try {
+			short[] samples = SoftwareMixer.toMixFormat(PcmSound.decode(filePath));
+			int id = samples != null ? mixer.register(samples, priority, maxVoices) : -1;
+			if (id < 0) {
+				System.out.println("Error loading sound '" + soundName + "': unsupported or mixer full");
+				return;
+			}
+			soundIds.put(soundName, id);
+		} catch (Exception e) {
+			System.out.println("Error loading sound '" + soundName + "': " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void loadMusic(String soundName, String filePath) {
+		if (!new File(filePath).exists()) {
+			System.out.println("Sound file not found: " + filePath);
+			return;
+		}
+		musicTracks.put(soundName, music.addTrack(filePath));
+	}
+
+	// ========================================
+	// REQUESTS (recorded, then passed to the mixer)
+	// ========================================
+	@Override
+	public void playSound(String soundName) {
+		record(EVENT_PLAY, soundName);
+		Integer id = soundIds.get(soundName);
+		if (id != null) {
+			mixer.play(id, 1.0f);
+			music.duck();
+		}
+	}
+
+	@Override
+	public void loopSound(String soundName) {
+		record(EVENT_LOOP, soundName);
+		Integer track = musicTracks.get(soundName);
+		Integer id = soundIds.get(soundName);
+		if (track != null) {
+			music.play(track);
+		} else if (id != null) {
+			mixer.stop(id);
+			mixer.loop(id, 1.0f);
+		}
+	}
+
+	@Override
+	public void crossfadeMusic(String soundName) {
+		record(EVENT_CROSSFADE, soundName);
+		Integer track = musicTracks.get(soundName);
+		if (track != null) {
+			music.crossfade(track, fadeFrames);
+		}
+	}
+
+	@Override
+	public void stopSound(String soundName) {
+		record(EVENT_STOP, soundName);
+		Integer track = musicTracks.get(soundName);
+		Integer id = soundIds.get(soundName);
+		if (track != null) {
+			music.stop(track);
+		} else if (id != null) {
+			mixer.stop(id);
+		}
+	}
+
+	@Override
+	public void stopAllSounds() {
+		record(EVENT_STOP_ALL, null);
+		mixer.stopAll();
+		music.stop();
+	}
+
+	@Override
+	public void pauseSound(String soundName) {
+		record(EVENT_PAUSE, soundName);
+		Integer track = musicTracks.get(soundName);
+		Integer id = soundIds.get(soundName);
+		if (track != null) {
+			music.pause(track);
+		} else if (id != null) {
+			mixer.pause(id);
+		}
+	}
+
+	@Override
+	public void resumeSound(String soundName) {
+		record(EVENT_RESUME, soundName);
+		Integer track = musicTracks.get(soundName);
+		Integer id = soundIds.get(soundName);
+		if (track != null) {
+			music.resume(track);
+		} else if (id != null) {
+			mixer.resume(id);
+		}
+	}
+
+	@Override
+	public void setMasterVolume(float volume) {
+		masterVolume = Math.max(0.0f, Math.min(1.0f, volume));
+		mixer.setMasterGain(masterVolume);
+		music.setGain(masterVolume);
+	}
+
+	@Override
+	public float getMasterVolume() {
+		return masterVolume;
+	}
+
+	@Override
+	public boolean isSoundLoaded(String soundName) {
+		return soundIds.containsKey(soundName) || musicTracks.containsKey(soundName);
+	}
+
+	/**
+	 * As of the last endTick() (requests take effect when the tick is mixed)
+	 */
+	@Override
+	public boolean isSoundPlaying(String soundName) {
+		Integer track = musicTracks.get(soundName);
+		Integer id = soundIds.get(soundName);
+		return track != null ? music.isPlaying(track) : id != null && mixer.isPlaying(id);
+	}
+
+	@Override
+	public void unloadSound(String soundName) {
+		stopSound(soundName);
+		soundIds.remove(soundName);
+		musicTracks.remove(soundName);
+	}
+
+	@Override
+	public void unloadAllSounds() {
+		stopAllSounds();
+		soundIds.clear();
+		musicTracks.clear();
+		music.closePreloaded();
+	}
+
+	private void record(int type, String soundName) {
+		if (eventCount == eventTick.length) {
+			eventsDropped++;
+			return;
+		}
+		int i = eventCount++;
+		eventTick[i] = tick;
+		eventNanos[i] = System.nanoTime();
+		eventFrame[i] = framesMixed; // This tick's block starts here
+		eventType[i] = type;
+		eventName[i] = soundName;
+	}
+
+	// ========================================
+	// MIXING
+	// ========================================
+	/**
+	 * Mix this tick's audio (1/60 s) into the capture buffer
+	 */
+	@Override
+	public void endTick() {
+		music.prepareLoops();
+		mixer.mix(block, FRAMES_PER_TICK);
+		music.mix(musicBlock, FRAMES_PER_TICK);
+		long start = framesMixed * SoftwareMixer.CHANNELS;
+		for (int i = 0; i < block.length; i++) {
+			short sample = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, block[i] + musicBlock[i]));
+			if (start + i < pcm.length) {
+				pcm[(int) (start + i)] = sample;
+			}
+		}
+		framesMixed += FRAMES_PER_TICK;
+		tick++;
+	}
+
+	/**
+	 * First captured frame at or after from where either channel reaches the threshold
+	 * (when other sounds are already playing there, this finds them instead)
+	 *
+	 * @return the frame, or -1 if there is none in the captured PCM
+	 */
+	public long onsetFrame(long from, int threshold) {
+		int frames = getCapturedFrames();
+		for (long f = Math.max(0, from); f < frames; f++) {
+			int i = (int) f * SoftwareMixer.CHANNELS;
+			if (Math.abs(pcm[i]) >= threshold || Math.abs(pcm[i + 1]) >= threshold) {
+				return f;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Write the captured PCM as a WAV file
+	 */
+	public void writeWav(String path) throws IOException {
+		int frames = getCapturedFrames();
+		byte[] bytes = new byte[frames * SoftwareMixer.FORMAT.getFrameSize()];
+		for (int i = 0, b = 0; i < frames * SoftwareMixer.CHANNELS; i++) {
+			bytes[b++] = (byte) pcm[i];
+			bytes[b++] = (byte) (pcm[i] >> 8);
+		}
+		try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(bytes), SoftwareMixer.FORMAT, frames)) {
+			AudioSystem.write(in, AudioFileFormat.Type.WAVE, new File(path));
+		}
+	}
+
+	// ===== CAPTURED DATA =====
+
+	public int getEventCount() { return eventCount; }
+	public long getEventsDropped() { return eventsDropped; }
+	public long getEventTick(int i) { return eventTick[i]; }
+	public long getEventNanos(int i) { return eventNanos[i]; }
+	/** @return the output frame the event's tick was mixed from */
+	public long getEventFrame(int i) { return eventFrame[i]; }
+	public int getEventType(int i) { return eventType[i]; }
+	/** @return the sound's name (null for stop all) */
+	public String getEventName(int i) { return eventName[i]; }
+
+	/** @return the captured samples (interleaved stereo; valid up to getCapturedFrames()) */
+	public short[] getPcm() { return pcm; }
+	public int getCapturedFrames() { return (int) Math.min(framesMixed, pcm.length / SoftwareMixer.CHANNELS); }
+	public long getFramesMixed() { return framesMixed; }
+	public long getTicks() { return tick; }
+
+	@Override
+	public long getVoiceSteals() { return mixer.getVoiceSteals(); }
+	@Override
+	public long getCopyRestarts() { return mixer.getCopyRestarts(); }
+	@Override
+	public long getVoiceRejects() { return mixer.getVoiceRejects(); }
+
+	@Override
+	public String getStatsSummary() {
+		return String.format("audio capture: %d events (%d dropped)  %.1f s mixed  voices %d/%d  restarts %d  steals %d  rejects %d",
+				eventCount, eventsDropped, framesMixed / SoftwareMixer.FORMAT.getFrameRate(),
+				mixer.getActiveVoices(), mixer.getMaxVoices(), mixer.getCopyRestarts(), mixer.getVoiceSteals(),
+				mixer.getVoiceRejects());
+	}
+}
@@ -0,0 +1,83 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * CommandQueue - Bounded lock-free queue of packed long commands
+ * Any number of threads may offer(); one thread drains. offer() never
+ * blocks and never allocates: when the ring is full it returns false and
+ * the command is counted as dropped.
+ *
+ * Each slot carries a sequence number saying whose turn it is (a producer
+ * claiming lap n, or the consumer reading it), so a producer that has
+ * claimed a slot but not filled it yet just stops the drain there.
+ */
+public final class CommandQueue {
+
+	private final int mask;
+	private final long[] commands;
+	private final AtomicLongArray sequence;
+	private final AtomicLong tail = new AtomicLong(); // Next slot to claim (producers)
+	private long head = 0; // Next slot to read (consumer only)
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * @param capacity Rounded up to a power of two
+	 */
+	public CommandQueue(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		mask = size - 1;
+		commands = new long[size];
+		sequence = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequence.set(i, i);
+		}
+	}
+
+	/**
+	 * Add a command (any thread)
+	 *
+	 * @return false if the queue was full and the command was dropped
+	 */
+	public boolean offer(long command) {
+		while (true) {
+			long t = tail.get();
+			int slot = (int) (t & mask);
+			long turn = sequence.get(slot) - t;
+			if (turn == 0) {
+				if (tail.compareAndSet(t, t + 1)) {
+					commands[slot] = command;
+					sequence.lazySet(slot, t + 1);
+					return true;
+				}
+			} else if (turn < 0) {
+				dropped.incrementAndGet();
+				return false;
+			}
+			// Another producer took this slot; try the next one
+		}
+	}
+
+	/**
+	 * Move queued commands into out, oldest first (consumer thread only)
+	 *
+	 * @return how many were copied
+	 */
+	public int drain(long[] out) {
+		int n = 0;
+		while (n < out.length) {
+			int slot = (int) (head & mask);
+			if (sequence.get(slot) != head + 1) {
+				break; // Empty, or the next slot isn't filled in yet
+			}
+			out[n++] = commands[slot];
+			sequence.lazySet(slot, head + mask + 1);
+			head++;
+		}
+		return n;
+	}
+
+	public int capacity() { return mask + 1; }
+	public long getDropped() { return dropped.get(); }
+}
@@ -0,0 +1,119 @@
+package main;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FrameScheduler - Paces a loop to a fixed rate without burning a CPU core
+ * Parks the calling thread until shortly before the next deadline, then
+ * spins the remaining few hundred microseconds so the wake-up lands within
+ * the configured jitter bound.
+ */
+public class FrameScheduler {
+
+	// Never park in slices shorter than this, the OS timer can't honour them
+	private static final long MIN_PARK_NANOS = 200_000L;
+
+	// Timing
+	private final long periodNanos;
+	private final long jitterBoundNanos;
+	private long nextDeadline;
+
+	// Running estimate of how far a park overshoots what we asked for
+	private long parkOvershootNanos;
+
+	// Stats
+	private long tickCount = 0;
+	private long lateTicks = 0;
+	private long maxLatenessNanos = 0;
+
+	/**
+	 * Create a scheduler for the given rate
+	 *
+	 * @param ticksPerSecond Target rate (e.g. 60)
+	 * @param jitterBoundNanos Maximum acceptable lateness of a wake-up
+	 */
+	public FrameScheduler(int ticksPerSecond, long jitterBoundNanos) {
+		this.periodNanos = 1_000_000_000L / ticksPerSecond;
+		this.jitterBoundNanos = jitterBoundNanos;
+		this.parkOvershootNanos = jitterBoundNanos;
+		this.nextDeadline = System.nanoTime() + periodNanos;
+	}
+
+	/**
+	 * Block until the next tick deadline
+	 * Coarse parks first, then a short spin for the final stretch
+	 *
+	 * @return the time (System.nanoTime) the caller was released
+	 */
+	public long awaitNextTick() {
+		long deadline = nextDeadline;
+
+		// === COARSE PHASE: PARK ===
+		// Stop parking once we are within the expected overshoot of the deadline
+		long now = System.nanoTime();
+		while (deadline - now > parkOvershootNanos + MIN_PARK_NANOS) {
+			long request = deadline - now - parkOvershootNanos;
+			LockSupport.parkNanos(request);
+			long woke = System.nanoTime();
+			updateOvershoot((woke - now) - request);
+			now = woke;
+		}
+
+		// === FINE PHASE: SPIN ===
+		while (deadline - now > 0) {
+			Thread.onSpinWait();
+			now = System.nanoTime();
+		}
+
+		// === BOOKKEEPING ===
+		long lateness = now - deadline;
+		tickCount++;
+		if (lateness > jitterBoundNanos) {
+			lateTicks++;
+		}
+		if (lateness > maxLatenessNanos) {
+			maxLatenessNanos = lateness;
+		}
+
+		// Schedule the next deadline; if we fell more than a whole period
+		// behind, resync instead of bursting to catch up
+		nextDeadline = deadline + periodNanos;
+		if (now - nextDeadline > periodNanos) {
+			nextDeadline = now + periodNanos;
+		}
+		return now;
+	}
+
+	/**
+	 * Track park overshoot with a slow-decay / fast-attack average
+	 * so one bad wake-up widens the spin window immediately
+	 */
+	private void updateOvershoot(long overshoot) {
+		if (overshoot < 0) overshoot = 0;
+		if (overshoot > parkOvershootNanos) {
+			parkOvershootNanos = overshoot;
+		} else {
+			parkOvershootNanos += (overshoot - parkOvershootNanos) / 16;
+		}
+		if (parkOvershootNanos < jitterBoundNanos) {
+			parkOvershootNanos = jitterBoundNanos;
+		}
+		if (parkOvershootNanos > periodNanos / 2) {
+			parkOvershootNanos = periodNanos / 2;
+		}
+	}
+
+	/**
+	 * Restart the schedule from now, e.g. after a long stall
+	 */
+	public void reset() {
+		nextDeadline = System.nanoTime() + periodNanos;
+	}
+
+	// Getters
+	public long getPeriodNanos() { return periodNanos; }
+	public long getJitterBoundNanos() { return jitterBoundNanos; }
+	public long getTickCount() { return tickCount; }
+	public long getLateTicks() { return lateTicks; }
+	public long getMaxLatenessNanos() { return maxLatenessNanos; }
+}
@@ -0,0 +1,103 @@
+package main;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+/**
+ * FrameStats - Where each tick's and frame's time goes
+ * One latency histogram per phase:
+ *  - input:  draining input and InputHandler.handleInput (game thread)
+ *  - sim:    GameplayManager.update and publishing the snapshot (game thread)
+ *  - render: drawing the frame with UIRenderer.render (render thread)
+ *  - present: BufferStrategy.show and the toolkit sync (render thread)
+ * The same table is drawn by the overlay and written to a file on exit.
+ *
+ * With -Dcatcher.allocStats=true the bytes each phase allocates per tick
+ * (or frame) are counted as well (see AllocationStats) and shown below
+ * the times.
+ */
+public final class FrameStats {
+
+	public final LatencyHistogram input = new LatencyHistogram("input");
+	public final LatencyHistogram simulation = new LatencyHistogram("sim");
+	public final LatencyHistogram render = new LatencyHistogram("render");
+	public final LatencyHistogram present = new LatencyHistogram("present");
+	private final LatencyHistogram[] phases = { input, simulation, render, present };
+
+	// Per-phase allocation (null unless enabled and supported by the JVM)
+	public final AllocationStats allocations = Boolean.getBoolean("catcher.allocStats") && AllocationStats.isSupported()
+			? new AllocationStats() : null;
+
+	// Overlay text, rebuilt a few times a second rather than every frame
+	private static final long OVERLAY_REFRESH_NANOS = 250_000_000L;
+	private final String[] overlayLines = new String[phases.length + 3
+			+ (allocations != null ? allocations.phases.length + 1 : 0)];
+	private long overlayBuiltAt = 0;
+
+	public static final String HEADER = String.format("%-8s %9s %9s %9s %9s %9s", "phase", "count", "p50", "p99", "p999", "max");
+
+	/**
+	 * One table row for a phase, times in microseconds
+	 */
+	public static String row(LatencyHistogram h) {
+		return String.format("%-8s %9d %9.1f %9.1f %9.1f %9.1f", h.getName(), h.getCount(),
+				h.getPercentile(50) / 1e3, h.getPercentile(99) / 1e3, h.getPercentile(99.9) / 1e3, h.getMax() / 1e3);
+	}
+
+	/**
+	 * Lines for the on-screen overlay (render thread)
+	 * The returned array is reused; don't keep it
+	 *
+	 * @param summary Makes the first line (rates and counters); only called on a rebuild
+	 * @param audio Makes the second line (audio counters); only called on a rebuild
+	 */
+	public String[] overlayLines(long now, Supplier<String> summary, Supplier<String> audio) {
+		if (overlayLines[0] == null || now - overlayBuiltAt >= OVERLAY_REFRESH_NANOS) {
+			overlayLines[0] = summary.get();
+			overlayLines[1] = audio.get();
+			overlayLines[2] = HEADER + "  (us)";
+			int line = 3;
+			for (LatencyHistogram h : phases) {
+				overlayLines[line++] = row(h);
+			}
+			if (allocations != null) {
+				overlayLines[line++] = AllocationStats.HEADER;
+				for (AllocationStats.Phase p : allocations.phases) {
+					overlayLines[line++] = AllocationStats.row(p);
+				}
+			}
+			overlayBuiltAt = now;
+		}
+		return overlayLines;
+	}
+
+	/**
+	 * Write the table to a file
+	 *
+	 * @param summary Extra line written above the table
+	 * @param audio Audio counters, written below the summary
+	 */
+	public void dump(String path, String summary, String audio) {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path)))) {
+			out.println(summary);
+			out.println(audio);
+			out.println(HEADER + "  (microseconds)");
+			for (LatencyHistogram h : phases) {
+				out.println(row(h));
+			}
+			if (allocations != null) {
+				out.println();
+				out.println(AllocationStats.HEADER + "  (bytes)");
+				for (AllocationStats.Phase p : allocations.phases) {
+					out.println(AllocationStats.row(p));
+				}
+			}
+			System.out.println("Frame stats written to " + path);
+		} catch (IOException e) {
+			System.out.println("Error writing frame stats: " + e.getMessage());
+		}
+	}
+}
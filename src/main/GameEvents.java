@@ -0,0 +1,194 @@
+package main;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * GameEvents - JDK Flight Recorder events for the game's hot paths
+ * Each event measures its own duration between begin() and commit(), so
+ * in JMC a stall in a tick lines up with the GC pauses, I/O and sound
+ * calls around it. Record with for example:
+ *
+ *   java -XX:StartFlightRecording=filename=catcher.jfr -cp bin main.Main
+ *
+ * Usage pattern at every call site:
+ *
+ *   GameEvents.Tick event = GameEvents.Tick.start(); // null unless recording
+ *   ...work...
+ *   if (event != null && event.shouldCommit()) { fill in fields; event.commit(); }
+ *
+ * start() checks the event type's enabled flag before creating anything,
+ * so with no recording running an event costs one field read and no
+ * allocation. (Relying on the JIT to remove unused event objects only
+ * works once C2 has compiled the caller, which at 60 ticks a second
+ * takes minutes.)
+ */
+public final class GameEvents {
+
+	private GameEvents() {}
+
+	@Name("catcher.Tick")
+	@Label("Game Tick")
+	@Category({ "Catcher", "Game Loop" })
+	@Description("One fixed-timestep update: input, simulation and publishing the snapshot")
+	@StackTrace(false)
+	public static final class Tick extends Event {
+		private static final EventType TYPE = EventType.getEventType(Tick.class);
+
+		/**
+		 * @return a begun event, or null if no recording wants this event
+		 */
+		public static Tick start() {
+			if (!TYPE.isEnabled()) return null;
+			Tick event = new Tick();
+			event.begin();
+			return event;
+		}
+
+		@Label("Tick")
+		public long tick;
+
+		@Label("Game State")
+		public int gameState;
+
+		@Label("Entity Count")
+		public int entityCount;
+
+		@Label("Paused")
+		public boolean paused;
+	}
+
+	@Name("catcher.Spawn")
+	@Label("Spawn")
+	@Category({ "Catcher", "Simulation" })
+	@Description("Food or bomb spawning for one tick (only recorded when something spawned)")
+	@StackTrace(false)
+	public static final class Spawn extends Event {
+		private static final EventType TYPE = EventType.getEventType(Spawn.class);
+
+		/**
+		 * @return a begun event, or null if no recording wants this event
+		 */
+		public static Spawn start() {
+			if (!TYPE.isEnabled()) return null;
+			Spawn event = new Spawn();
+			event.begin();
+			return event;
+		}
+
+		@Label("Kind")
+		public String kind;
+
+		@Label("Spawned")
+		public int spawned;
+
+		@Label("Entity Count")
+		public int entityCount;
+	}
+
+	@Name("catcher.UpdateEntities")
+	@Label("Update Entities")
+	@Category({ "Catcher", "Simulation" })
+	@Description("Moving, catching and removing the falling objects for one tick")
+	@StackTrace(false)
+	public static final class UpdateEntities extends Event {
+		private static final EventType TYPE = EventType.getEventType(UpdateEntities.class);
+
+		/**
+		 * @return a begun event, or null if no recording wants this event
+		 */
+		public static UpdateEntities start() {
+			if (!TYPE.isEnabled()) return null;
+			UpdateEntities event = new UpdateEntities();
+			event.begin();
+			return event;
+		}
+
+		@Label("Entity Count")
+		@Description("Objects falling at the start of the tick")
+		public int entityCount;
+
+		@Label("Candidates")
+		@Description("Objects near enough to the player for the exact tests")
+		public int candidates;
+
+		@Label("Caught")
+		public int caught;
+
+		@Label("Missed")
+		public int missed;
+
+		@Label("Bomb Hits")
+		public int bombHits;
+	}
+
+	@Name("catcher.Sound")
+	@Label("Sound")
+	@Category({ "Catcher", "Audio" })
+	@Description("Starting a sound effect or a looping sound")
+	public static final class Sound extends Event {
+		private static final EventType TYPE = EventType.getEventType(Sound.class);
+
+		/**
+		 * @return a begun event, or null if no recording wants this event
+		 */
+		public static Sound start() {
+			if (!TYPE.isEnabled()) return null;
+			Sound event = new Sound();
+			event.begin();
+			return event;
+		}
+
+		@Label("Sound Name")
+		public String name;
+
+		@Label("Looped")
+		public boolean looped;
+
+		@Label("Stolen")
+		@Description("All of the effect's clips were busy and the oldest was restarted")
+		public boolean stolen;
+
+		@Label("Data Size")
+		@Description("Decoded size for an effect, file size for a loop")
+		@DataAmount
+		public long dataSize;
+	}
+
+	@Name("catcher.AssetLoad")
+	@Label("Asset Load")
+	@Category({ "Catcher", "Assets" })
+	@Description("Reading and decoding an image")
+	public static final class AssetLoad extends Event {
+		private static final EventType TYPE = EventType.getEventType(AssetLoad.class);
+
+		/**
+		 * @return a begun event, or null if no recording wants this event
+		 */
+		public static AssetLoad start() {
+			if (!TYPE.isEnabled()) return null;
+			AssetLoad event = new AssetLoad();
+			event.begin();
+			return event;
+		}
+
+		@Label("Path")
+		public String path;
+
+		@Label("File Size")
+		@DataAmount
+		public long fileSize;
+
+		@Label("Width")
+		public int width;
+
+		@Label("Height")
+		public int height;
+	}
+}
@@ -1,123 +1,410 @@
 package main;
 
+import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Dimension;
-import java.awt.Graphics;
+import java.awt.DisplayMode;
 import java.awt.Graphics2D;
-import java.util.ArrayList;
-
-import javax.swing.JPanel;
+import java.awt.GraphicsConfiguration;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
 
 import entity.Player;
-import entity.FallingEntity;
+import entity.FallingEntityStore;
 import entity.sounds;
 
-public class GamePanel extends JPanel implements Runnable{
-	
-	// Screen Settings
-	final int originalTileSize = 16;
-	final int scale = 3;
+public class GamePanel extends Canvas implements Runnable{
 	
-	public final int tileSize = originalTileSize * scale;
-	public final int maxScreenCol = 20;	
-	public final int maxScreenRow = 15;
+	// The simulation this panel shows
+	public final GameWorld world;
 	
-	// World Settings
-	public final int maxWorldCol = maxScreenCol;
-	public final int maxWorldRow = maxScreenRow;
-	public final int worldWidth = tileSize * maxWorldCol;
-	public final int worldHeight = tileSize * maxWorldRow;
+	// Screen size (the world's)
+	public final int tileSize;
+	public final int screenWidth;
+	public final int screenHeight;
 	
 	// FPS
-	int FPS = 60;
+	int FPS = 60; // Simulation updates per second (fixed timestep)
+	int renderFPS = Integer.getInteger("catcher.renderFps", 0); // 0 = match the display refresh rate
+	int maxCatchUpTicks = Integer.getInteger("catcher.maxCatchUpTicks", 5);
+	// Maximum acceptable lateness of a frame wake-up (-Dcatcher.frameJitterMicros=...)
+	long frameJitterNanos = Long.getLong("catcher.frameJitterMicros", 500L) * 1000L;
+	// Back buffers for active rendering (2 = double, 3 = triple buffering)
+	int bufferCount = Math.max(2, Math.min(3, Integer.getInteger("catcher.buffers", 3)));
+	
+	// Frame loop stats (each written by one thread, read by anyone)
+	private volatile long lastPresentTime = 0; // System.nanoTime() right after the last frame was shown
+	private volatile long droppedTicks = 0; // Simulation ticks skipped by the catch-up cap
+	private volatile long lateFrames = 0; // Frames that woke up later than the jitter bound
+	private volatile int currentUPS = 0;
+	private volatile int currentFPS = 0;
 	
-	// Screen size
-	public final int screenWidth = maxScreenCol * tileSize;
-	public final int screenHeight = maxScreenRow * tileSize;
+	// Per-phase frame timing; F3 (or -Dcatcher.frameStats=true) shows the overlay
+	public final FrameStats frameStats = new FrameStats();
+	private volatile boolean showFrameStats = Boolean.getBoolean("catcher.frameStats");
+	private final Supplier<String> frameStatsSummary = this::frameStatsSummary;
+	private final Supplier<String> audioStatsSummary = this::audioStatsSummary;
 	
-	// Handlers
-	KeyHandler keyH = new KeyHandler();
-	MouseHandler mouseH = new MouseHandler();
+	// Handlers (the world's; they only queue events for the game thread)
+	KeyHandler keyH;
+	MouseHandler mouseH;
+	// Replay and/or recorder applied before each tick (null = listeners only)
+	private InputSource inputSource;
 	
-	// Game Components
-	public Player player = new Player(this, keyH);
-	public ArrayList<FallingEntity> fallingEntities = new ArrayList<>();
+	// Game Components (owned by the world)
+	public final Player player;
+	public final FallingEntityStore fallingEntities;
 	
 	// Managers
 	private GameStateManager stateManager;
 	public GameplayManager gameplayManager;
 	private UIRenderer uiRenderer;
 	private InputHandler inputHandler;
-	public SoundHandler soundHandler;
+	public AudioBackend soundHandler;
 	public sounds gameSound;
 	
 	Thread gameThread; 
+	Thread renderThread;
+	private BufferStrategy bufferStrategy;
+	
+	// Hands finished ticks from the game thread to the render thread
+	private final SnapshotBuffer snapshots = new SnapshotBuffer();
+	private long tickCount = 0;
 	
 	
 	public GamePanel() {
+		// Initialize sound system
+		soundHandler = createAudio(System.getProperty("catcher.audio", "clips"));
+		gameSound = new sounds(soundHandler);
+		
+		// Input replay (-Dcatcher.replayInput=file) brings its own seed
+		InputReplay replay = openReplay(System.getProperty("catcher.replayInput"));
+		
+		// Build the simulation and load what it needs to be drawn
+		world = replay != null ? new GameWorld(gameSound, replay.getSeed()) : new GameWorld(gameSound);
+		keyH = world.keyH;
+		mouseH = world.mouseH;
+		tileSize = world.tileSize;
+		screenWidth = world.screenWidth;
+		screenHeight = world.screenHeight;
+		player = world.player;
+		fallingEntities = world.fallingEntities;
+		player.getPlayerImage();
+		
 		this.setPreferredSize(new Dimension(screenWidth, screenHeight));
 		this.setBackground(Color.black);
-		this.setDoubleBuffered(true);
-		this.addKeyListener(keyH);
-		this.addMouseListener(mouseH);
-		this.addMouseMotionListener(mouseH);
+		this.setIgnoreRepaint(true); // We draw actively from the game thread, not on the EDT
+		if (replay == null) {
+			// While replaying, only the recording drives the game
+			this.addKeyListener(keyH);
+			this.addMouseListener(mouseH);
+			this.addMouseMotionListener(mouseH);
+		}
 		this.setFocusable(true);
+		inputSource = replay;
+		startRecording(System.getProperty("catcher.recordInput"));
 		
-		// Initialize sound system
-		soundHandler = new SoundHandler();
-		gameSound = new sounds(soundHandler);
-		
-		// Start menu music
-		gameSound.stopAllSounds();
-		gameSound.playMenuMusic();
+		// Write the frame-time table when the game exits (empty file name = don't)
+		String statsFile = System.getProperty("catcher.frameStatsFile", "frame-stats.txt");
+		if (!statsFile.isEmpty()) {
+			Runtime.getRuntime().addShutdownHook(new Thread(
+					() -> frameStats.dump(statsFile, frameStatsSummary(), audioStatsSummary()), "frame-stats"));
+		}
 		
 		// Initialize managers
-		stateManager = new GameStateManager();
+		stateManager = world.stateManager;
+		gameplayManager = world.gameplayManager;
 		uiRenderer = new UIRenderer(this, stateManager);
-		gameplayManager = new GameplayManager(this, stateManager);
-		inputHandler = new InputHandler(this, stateManager, uiRenderer, keyH, mouseH);
+		inputHandler = new InputHandler(this, stateManager, uiRenderer);
+	}
+	
+	// Pick the audio backend (-Dcatcher.audio=clips|mixer|null|capture); the ones
+	// with speakers run from their own thread unless -Dcatcher.audioThread=false
+	private AudioBackend createAudio(String name) {
+		AudioBackend audio;
+		switch (name) {
+			case "null":
+				return new NullSoundHandler();
+			case "capture":
+				return new CaptureAudioBackend(); // Mixes in endTick(), so stays on the game thread
+			case "mixer":
+				audio = new MixerSoundHandler();
+				break;
+			case "clips":
+				audio = new SoundHandler();
+				break;
+			default:
+				System.out.println("Unknown audio backend '" + name + "', using clips");
+				audio = new SoundHandler();
+				break;
+		}
+		if (!"false".equals(System.getProperty("catcher.audioThread"))) {
+			audio = new AsyncSoundHandler(audio);
+		}
+		return audio;
+	}
+	
+	// Open a window recording to replay, or return null
+	private InputReplay openReplay(String path) {
+		if (path == null) {
+			return null;
+		}
+		try {
+			InputReplay replay = new InputReplay(Paths.get(path));
+			if (replay.getSource() != InputLog.SOURCE_WINDOW) {
+				System.out.println("Not replaying " + path + ": it was recorded headless (no menus); replay it with HeadlessGame");
+				return null;
+			}
+			System.out.println("Replaying input from " + path);
+			return replay;
+		} catch (IOException e) {
+			System.out.println("Error opening input recording: " + e.getMessage());
+			return null;
+		}
+	}
+	
+	// Record every tick's input (-Dcatcher.recordInput=file) until the game exits
+	private void startRecording(String path) {
+		if (path == null) {
+			return;
+		}
+		try {
+			InputRecorder recorder = new InputRecorder(Paths.get(path), InputLog.SOURCE_WINDOW, world.seed, inputSource);
+			Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "input-recorder"));
+			inputSource = recorder;
+			System.out.println("Recording input to " + path);
+		} catch (IOException e) {
+			System.out.println("Error starting input recording: " + e.getMessage());
+		}
 	}
 	
 	public void startGameThread() {
-		gameThread = new Thread(this);
+		// The canvas must be displayable before it can own a BufferStrategy
+		createBufferStrategy(bufferCount);
+		bufferStrategy = getBufferStrategy();
+		requestFocus();
+		
+		gameThread = new Thread(this, "game");
 		gameThread.start();	
+		
+		renderThread = new Thread(this::renderLoop, "render");
+		renderThread.start();
 	}
 
+	// ========================================
+	// GAME THREAD - Fixed 60 UPS simulation
+	// ========================================
 	@Override
 	public void run() {
-		double drawInterval = 1000000000/FPS;
-		double delta = 0;
-		double lastTime = System.nanoTime();
-		long currentTime;
+		long tickInterval = 1000000000L / FPS;
+		FrameScheduler scheduler = new FrameScheduler(FPS, frameJitterNanos);
+		
+		long lastTime = System.nanoTime();
+		long accumulator = 0;
 		long timer = 0;
-		long drawCount = 0;
+		int updateCount = 0;
 		
 		while(gameThread != null) {
-			currentTime = System.nanoTime();
-			delta += (currentTime - lastTime)/ drawInterval;
-			timer += (currentTime - lastTime);
+			long currentTime = scheduler.awaitNextTick();
+			long elapsed = currentTime - lastTime;
 			lastTime = currentTime;
+			accumulator += elapsed;
+			timer += elapsed;
 			
-			if(delta >= 1) {
+			// Run as many whole ticks as have elapsed, but never more than
+			// the catch-up cap, so a long stall can't snowball
+			int steps = 0;
+			while(accumulator >= tickInterval && steps < maxCatchUpTicks) {
 				update();
-				repaint();
-				delta--;
-				drawCount++;
+				accumulator -= tickInterval;
+				steps++;
+			}
+			if(accumulator >= tickInterval) {
+				droppedTicks += accumulator / tickInterval;
+				accumulator %= tickInterval;
+			}
+			updateCount += steps;
+			
+			if(timer >= 1000000000) {
+				currentUPS = updateCount;
+				updateCount = 0;
+				timer = 0;
 			}
+		}
+	}
+	
+	// ========================================
+	// RENDER THREAD - Draws the latest snapshot at display rate
+	// ========================================
+	private void renderLoop() {
+		long tickInterval = 1000000000L / FPS;
+		FrameScheduler scheduler = new FrameScheduler(resolveRenderFPS(), frameJitterNanos);
+		
+		long lastTime = System.nanoTime();
+		long timer = 0;
+		int drawCount = 0;
+		
+		while(gameThread != null) {
+			long currentTime = scheduler.awaitNextTick();
+			timer += currentTime - lastTime;
+			lastTime = currentTime;
+			
+			// Blend from the snapshot's previous tick towards its own tick
+			// over the interval until the next one is due
+			RenderSnapshot snapshot = snapshots.acquireLatest();
+			float alpha = (float) (currentTime - snapshot.publishTime) / tickInterval;
+			if(alpha < 0) alpha = 0;
+			if(alpha > 1) alpha = 1;
+			
+			render(snapshot, alpha);
+			drawCount++;
+			lateFrames = scheduler.getLateTicks();
+			
 			if(timer >= 1000000000) {
+				currentFPS = drawCount;
 				drawCount = 0;
 				timer = 0;
 			}
 		}
 	}
 	
+	/**
+	 * Pick the render rate: the explicit override if given, otherwise the
+	 * refresh rate of the display the panel is on, otherwise the tick rate
+	 */
+	private int resolveRenderFPS() {
+		if(renderFPS > 0) {
+			return renderFPS;
+		}
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		if(gc != null) {
+			int refreshRate = gc.getDevice().getDisplayMode().getRefreshRate();
+			if(refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN && refreshRate >= FPS) {
+				return refreshRate;
+			}
+		}
+		return FPS;
+	}
+	
 	public void update() {
+		GameEvents.Tick event = GameEvents.Tick.start();
+		AllocationStats allocations = frameStats.allocations;
+		long startBytes = allocations != null ? AllocationStats.currentThreadBytes() : 0;
+		long start = System.nanoTime();
+		world.pollInput(inputSource);
 		inputHandler.handleInput();
-		gameplayManager.update();
+		long inputDone = System.nanoTime();
+		frameStats.input.record(inputDone - start);
+		long inputBytes = allocations != null ? AllocationStats.currentThreadBytes() : 0;
+		
+		world.tick();
+		
+		// Publish this tick for the renderer
+		RenderSnapshot snapshot = snapshots.beginWrite();
+		snapshot.capture(++tickCount, stateManager, player, fallingEntities);
+		long simDone = System.nanoTime();
+		snapshots.publish(simDone);
+		frameStats.simulation.record(simDone - inputDone);
+		
+		if (allocations != null) {
+			allocations.input.record(inputBytes - startBytes);
+			allocations.simulation.record(AllocationStats.currentThreadBytes() - inputBytes);
+		}
+		
+		if (event != null && event.shouldCommit()) {
+			event.tick = tickCount;
+			event.gameState = snapshot.gameState;
+			event.entityCount = snapshot.entityCount;
+			event.paused = snapshot.paused;
+			event.commit();
+		}
 	}
-	public void paintComponent(Graphics g) {
-		super.paintComponent(g);
-		Graphics2D g2 = (Graphics2D) g;
-		uiRenderer.render(g2);
-		g2.dispose();
-	}}
\ No newline at end of file
+	
+	/**
+	 * Draw one frame into the back buffer and present it
+	 * Redraws if the buffer contents were lost or restored mid-frame
+	 * 
+	 * @param snapshot The simulation tick to draw
+	 * @param alpha Interpolation between the snapshot's previous and current tick
+	 */
+	private void render(RenderSnapshot snapshot, float alpha) {
+		AllocationStats allocations = frameStats.allocations;
+		long renderTime = 0;
+		long presentTime = 0;
+		long renderBytes = 0;
+		long presentBytes = 0;
+		do {
+			long startBytes = allocations != null ? AllocationStats.currentThreadBytes() : 0;
+			long start = System.nanoTime();
+			do {
+				Graphics2D g2 = (Graphics2D) bufferStrategy.getDrawGraphics();
+				try {
+					g2.setColor(Color.black);
+					g2.fillRect(0, 0, screenWidth, screenHeight);
+					uiRenderer.setFrame(snapshot, alpha);
+					uiRenderer.render(g2);
+					if (showFrameStats) {
+						uiRenderer.drawFrameStats(g2, frameStats.overlayLines(start, frameStatsSummary, audioStatsSummary));
+					}
+				} finally {
+					g2.dispose();
+				}
+			} while(bufferStrategy.contentsRestored());
+			
+			long drawn = System.nanoTime();
+			long drawnBytes = allocations != null ? AllocationStats.currentThreadBytes() : 0;
+			bufferStrategy.show();
+			renderTime += drawn - start;
+			presentTime += System.nanoTime() - drawn;
+			renderBytes += drawnBytes - startBytes;
+			presentBytes += (allocations != null ? AllocationStats.currentThreadBytes() : 0) - drawnBytes;
+		} while(bufferStrategy.contentsLost());
+		
+		// Flush the pipeline so the frame is on screen now, not whenever X gets to it
+		long syncStart = System.nanoTime();
+		long syncBytes = allocations != null ? AllocationStats.currentThreadBytes() : 0;
+		Toolkit.getDefaultToolkit().sync();
+		lastPresentTime = System.nanoTime();
+		presentTime += lastPresentTime - syncStart;
+		
+		frameStats.render.record(renderTime);
+		frameStats.present.record(presentTime);
+		if (allocations != null) {
+			presentBytes += AllocationStats.currentThreadBytes() - syncBytes;
+			allocations.render.record(renderBytes);
+			allocations.present.record(presentBytes);
+		}
+	}
+	
+	/**
+	 * Show or hide the frame-time overlay
+	 */
+	public void toggleFrameStats() {
+		showFrameStats = !showFrameStats;
+	}
+	
+	// Rates and counters shown above the frame-time table
+	private String frameStatsSummary() {
+		return String.format("UPS %d  FPS %d  dropped ticks %d  late frames %d  input lag max %.1f ms  candidates %d (avg %.1f of %.1f)  objects peak %d/%d, %d spawns dropped",
+				currentUPS, currentFPS, droppedTicks, lateFrames,
+				world.inputEvents.getMaxLatencyNanos() / 1e6,
+				world.gameplayManager.getLastCandidatePairs(), world.gameplayManager.getAverageCandidatePairs(),
+				world.gameplayManager.getAverageBroadphaseObjects(),
+				world.fallingEntities.getHighWaterMark(), world.fallingEntities.getCapacity(),
+				world.fallingEntities.getExhaustedCount());
+	}
+	
+	private String audioStatsSummary() {
+		return soundHandler.getStatsSummary();
+	}
+	
+	// Frame loop stats getters
+	public long getDroppedTicks() { return droppedTicks; }
+	public long getLateFrames() { return lateFrames; }
+	public int getCurrentUPS() { return currentUPS; }
+	public int getCurrentFPS() { return currentFPS; }
+	public long getLastPresentTime() { return lastPresentTime; }
+}
\ No newline at end of file
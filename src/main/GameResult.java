@@ -0,0 +1,33 @@
+package main;
+
+/**
+ * GameResult - Outcome of one headless bot game
+ */
+public class GameResult {
+
+	public final long seed;
+	public final int score;
+	public final long ticks; // How long the bot survived, in simulation ticks
+	public final int foodCaught;
+	public final int foodMissed;
+	public final int bombHits;
+	public final boolean gameOver; // false = stopped by the tick limit
+
+	public GameResult(long seed, int score, long ticks, int foodCaught, int foodMissed, int bombHits, boolean gameOver) {
+		this.seed = seed;
+		this.score = score;
+		this.ticks = ticks;
+		this.foodCaught = foodCaught;
+		this.foodMissed = foodMissed;
+		this.bombHits = bombHits;
+		this.gameOver = gameOver;
+	}
+
+	/**
+	 * Fraction of food that was caught instead of falling off the screen
+	 */
+	public double catchRate() {
+		int total = foodCaught + foodMissed;
+		return total == 0 ? 0 : (double) foodCaught / total;
+	}
+}
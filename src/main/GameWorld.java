@@ -0,0 +1,133 @@
+package main;
+
+import java.util.Random;
+
+import entity.FallingEntityStore;
+import entity.Player;
+import entity.sounds;
+
+/**
+ * GameWorld - The game simulation, without a window
+ * Owns everything one tick touches: screen bounds, input, the player,
+ * the falling objects, the state and gameplay managers and the audio sink.
+ * GamePanel puts a world on screen; HeadlessGame runs one as fast as the
+ * CPU allows. Both run exactly the same update rules.
+ */
+public class GameWorld {
+
+	// Screen Settings
+	final int originalTileSize = 16;
+	final int scale = 3;
+
+	public final int tileSize = originalTileSize * scale;
+	public final int maxScreenCol = 20;
+	public final int maxScreenRow = 15;
+
+	// World Settings
+	public final int maxWorldCol = maxScreenCol;
+	public final int maxWorldRow = maxScreenRow;
+	public final int worldWidth = tileSize * maxWorldCol;
+	public final int worldHeight = tileSize * maxWorldRow;
+
+	// Screen size
+	public final int screenWidth = maxScreenCol * tileSize;
+	public final int screenHeight = maxScreenRow * tileSize;
+
+	// Seed everything random in this world derives from
+	public final long seed;
+
+	// Input: the window's listeners post to the queue, the game thread
+	// applies it to the key/mouse state and turns that into one frame per tick
+	public final InputEventQueue inputEvents = new InputEventQueue(1024);
+	public final KeyHandler keyH = new KeyHandler(inputEvents);
+	public final MouseHandler mouseH = new MouseHandler(inputEvents);
+	private InputFrame input = new InputFrame();
+	private InputFrame previousInput = new InputFrame();
+	private long inputTick = 0;
+
+	// Audio (speakers or a null sink), and which music it should play
+	public final sounds gameSound;
+	public final MusicController music;
+
+	// Game Components
+	public final Player player;
+	public final FallingEntityStore fallingEntities;
+
+	// Managers
+	public final GameStateManager stateManager;
+	public final GameplayManager gameplayManager;
+
+	/**
+	 * Create a world in the menu state
+	 * Seeded from catcher.seed when given (deterministic runs), randomly otherwise
+	 */
+	public GameWorld(sounds gameSound) {
+		this(gameSound, Long.getLong("catcher.seed", new Random().nextLong()));
+	}
+
+	/**
+	 * Create a world in the menu state
+	 * No images are loaded here; whoever draws the world loads them
+	 *
+	 * @param gameSound Where game sounds go
+	 * @param seed Seed for everything random in the simulation
+	 */
+	public GameWorld(sounds gameSound, long seed) {
+		this.seed = seed;
+		this.gameSound = gameSound;
+		this.music = new MusicController(gameSound);
+
+		player = new Player(this);
+		fallingEntities = new FallingEntityStore(
+				Integer.getInteger("catcher.maxEntities", Integer.getInteger("catcher.stressSpawns", 0) > 0 ? 16384 : 256));
+
+		stateManager = new GameStateManager();
+		gameplayManager = new GameplayManager(this, stateManager, seed);
+	}
+
+	/**
+	 * Reset the round and switch straight into play
+	 */
+	public void startGame() {
+		gameplayManager.reset();
+		stateManager.setGameState(GameStateManager.GAME_STATE);
+	}
+
+	/**
+	 * Gather this tick's input (call once per tick, before handling it)
+	 * Applies queued window events, then lets source (a bot or replay,
+	 * may be null) set the keys, then builds the tick's InputFrame
+	 */
+	public void pollInput(InputSource source) {
+		inputEvents.drain(keyH, mouseH);
+		if (source != null) {
+			source.nextTick(keyH, mouseH);
+		}
+		InputFrame frame = previousInput;
+		previousInput = input;
+		frame.capture(++inputTick, previousInput, keyH, mouseH);
+		input = frame;
+	}
+
+	/**
+	 * @return the input of the current tick
+	 */
+	public InputFrame getInput() {
+		return input;
+	}
+
+	/**
+	 * Advance the simulation by one fixed tick
+	 */
+	public void tick() {
+		gameplayManager.update();
+		gameSound.endTick();
+	}
+
+	/**
+	 * Hash of the simulation state (see GameplayManager.stateHash)
+	 */
+	public long stateHash() {
+		return gameplayManager.stateHash();
+	}
+}
@@ -1,14 +1,26 @@
 package main;
 
-import java.util.Iterator;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import entity.CollisionKernel;
 import entity.FallingEntity;
+import entity.FallingEntityStore;
+import entity.Player;
+import entity.SpatialGrid;
+import entity.sounds;
 
 public class GameplayManager {
 
-    private GamePanel gamePanel;
+    private GameWorld world;
     private GameStateManager stateManager;
-    private Random random = new Random();
+    // RNG STREAMS (split from one seed; each decision draws from its own
+    // stream, so changing how often one is used never shifts the others)
+    private SplittableRandom positionRandom; // Food spawn X
+    private SplittableRandom typeRandom; // Food type
+    private SplittableRandom bombRandom; // Bomb spawn X
+
+    // STRESS MODE: extra food spawned every tick (-Dcatcher.stressSpawns=...)
+    private int stressSpawnsPerTick = Integer.getInteger("catcher.stressSpawns", 0);
 
     // FOOD SPAWN
     private int foodSpawnCounter = 0;
@@ -18,20 +30,55 @@ public class GameplayManager {
     private int bombSpawnCounter = 0;
     private int bombSpawnRate = 120;
 
-    // MUSIC STATE FLAGS
-    private boolean menuMusic = false;
-    private boolean gameMusic = false;
-    private boolean pauseMusic = false;
-    private boolean gameOverMusic = false;
-	private boolean musicPaused = false;
-
-
     // TIME
     private long gameTime = 0;
 
-    public GameplayManager(GamePanel gamePanel, GameStateManager stateManager) {
-        this.gamePanel = gamePanel;
+    // ROUND STATS
+    private int foodCaught = 0;
+    private int foodMissed = 0;
+    private int bombHits = 0;
+
+    // STATE HASH (FNV-1a constants)
+    private static final long HASH_OFFSET = 0xcbf29ce484222325L;
+    private static final long HASH_PRIME = 0x100000001b3L;
+
+    // BROADPHASE
+    private SpatialGrid grid;
+    private int[] candidates; // Objects near a player this tick
+    private int[] candidateX, candidateY, candidateFlags; // Packed copies for the kernel
+    private long[] caughtMask, hitMask;
+    private int[] kernelScratch;
+    private long[] missedBits, caughtBits, hitBits; // By store index
+    private long[] eventOrder; // Spawn order and store index of this tick's events, for sorting
+    private int lastCandidatePairs = 0;
+    private long totalCandidatePairs = 0;
+    private long broadphaseTicks = 0;
+    private long broadphaseObjects = 0; // Objects on screen, summed over those ticks
+
+    /**
+     * @param seed Seed for spawn positions, types and timing
+     */
+    public GameplayManager(GameWorld world, GameStateManager stateManager, long seed) {
+        this.world = world;
         this.stateManager = stateManager;
+        SplittableRandom root = new SplittableRandom(seed);
+        this.positionRandom = root.split();
+        this.typeRandom = root.split();
+        this.bombRandom = root.split();
+
+        int capacity = world.fallingEntities.getCapacity();
+        this.grid = new SpatialGrid(world.tileSize, world.screenWidth, world.screenHeight, capacity);
+        this.candidates = new int[capacity];
+        this.candidateX = new int[capacity];
+        this.candidateY = new int[capacity];
+        this.candidateFlags = new int[capacity];
+        this.caughtMask = new long[CollisionKernel.maskWords(capacity)];
+        this.hitMask = new long[CollisionKernel.maskWords(capacity)];
+        this.kernelScratch = new int[capacity];
+        this.missedBits = new long[CollisionKernel.maskWords(capacity)];
+        this.caughtBits = new long[CollisionKernel.maskWords(capacity)];
+        this.hitBits = new long[CollisionKernel.maskWords(capacity)];
+        this.eventOrder = new long[capacity];
     }
 
     public void update() {
@@ -43,10 +90,11 @@ public class GameplayManager {
     }
 
     if (stateManager.isPaused()) {
+        settleInterpolation();
         return;
     }
 
-    gamePanel.player.update();
+    world.player.update();
     gameTime++;
 
     spawnFood();
@@ -57,145 +105,263 @@ public class GameplayManager {
 
 
     // =========================
-    // MUSIC CONTROLLER
+    // MUSIC
     // =========================
+    // Ask for the current state's track every tick; the controller only
+    // passes on changes (crossfades, pause, resume)
     private void handleMusic() {
 
     int state = stateManager.getGameState();
 
-    // =====================
-    // PAUSE MUSIC (FLAG-BASED)
-    // =====================
     if (stateManager.isPaused()) {
-        if (!musicPaused) {
-            gamePanel.gameSound.pauseBackgroundMusic();
-            musicPaused = true;
-        }
+        world.music.pause();
         return;
-    } else {
-        if (musicPaused) {
-            gamePanel.gameSound.resumeBackgroundMusic();
-            musicPaused = false;
-        }
     }
-
-    // =====================
-    // MENU MUSIC
-    // =====================
-    if (state == GameStateManager.MENU_STATE && !menuMusic) {
-        resetMusicFlags();
-        gamePanel.gameSound.stopAllSounds();
-        gamePanel.gameSound.playMenuMusic();
-        menuMusic = true;
-    }
-
-    // =====================
-    // GAME MUSIC
-    // =====================
-    else if (state == GameStateManager.GAME_STATE && !gameMusic) {
-        resetMusicFlags();
-        gamePanel.gameSound.stopAllSounds();
-        gamePanel.gameSound.playBackgroundMusic();
-        gameMusic = true;
-    }
-
-    // =====================
-    // GAME OVER MUSIC
-    // =====================
-    else if (state == GameStateManager.GAMEOVER_STATE && !gameOverMusic) {
-        resetMusicFlags();
-        gamePanel.gameSound.stopAllSounds();
-		gamePanel.gameSound.playDeadSound();
-        gamePanel.gameSound.playGameOverMusic();
-        gameOverMusic = true;
+    world.music.resume();
+
+    if (state == GameStateManager.MENU_STATE) {
+        world.music.play(sounds.MENU_MUSIC);
+    } else if (state == GameStateManager.GAME_STATE) {
+        world.music.play(sounds.GAME_MUSIC);
+    } else if (state == GameStateManager.GAMEOVER_STATE) {
+        if (world.music.play(sounds.GAME_OVER_MUSIC)) {
+            world.gameSound.playDeadSound();
+        }
     }
 	}
 
-
-    private void resetMusicFlags() {
-        menuMusic = false;
-        gameMusic = false;
-        pauseMusic = false;
-        gameOverMusic = false;
-    }
-
     // =========================
     // GAME SPAWN LOGIC
     // =========================
     private void spawnFood() {
+        GameEvents.Spawn event = GameEvents.Spawn.start();
+        int before = world.fallingEntities.size();
+
+        for (int i = 0; i < stressSpawnsPerTick; i++) {
+            spawn(positionRandom.nextInt(world.screenWidth - 50), typeRandom.nextInt(5) + 1);
+        }
+
         foodSpawnCounter++;
         if (foodSpawnCounter >= foodSpawnRate) {
             foodSpawnCounter = 0;
-            int x = random.nextInt(gamePanel.screenWidth - 50);
-            int type = random.nextInt(5) + 1;
-            gamePanel.fallingEntities.add(new FallingEntity(gamePanel, x, type));
+            int x = positionRandom.nextInt(world.screenWidth - 50);
+            int type = typeRandom.nextInt(5) + 1;
+            spawn(x, type);
         }
+
+        commitSpawn(event, "food", before);
     }
 
     private void spawnBomb() {
+        GameEvents.Spawn event = GameEvents.Spawn.start();
+        int before = world.fallingEntities.size();
+
         int rate = Math.max(30, bombSpawnRate - (int)(gameTime / 900) * 15);
         bombSpawnCounter++;
 
         if (bombSpawnCounter >= rate) {
             bombSpawnCounter = 0;
-            int x = random.nextInt(gamePanel.screenWidth - 50);
-            gamePanel.fallingEntities.add(new FallingEntity(gamePanel, x, 0));
+            int x = bombRandom.nextInt(world.screenWidth - 50);
+            spawn(x, 0);
         }
+
+        commitSpawn(event, "bomb", before);
+    }
+
+    // Record a spawn event if anything spawned and a recording wants it
+    private void commitSpawn(GameEvents.Spawn event, String kind, int before) {
+        int count = world.fallingEntities.size();
+        if (count != before && event != null && event.shouldCommit()) {
+            event.kind = kind;
+            event.spawned = count - before;
+            event.entityCount = count;
+            event.commit();
+        }
+    }
+
+    // If the store is full the spawn is skipped (and counted by the store)
+    private void spawn(int x, int type) {
+        world.fallingEntities.spawn(x, type);
     }
 
     // =========================
     // ENTITY UPDATES
     // =========================
     private void updateEntities() {
-        Iterator<FallingEntity> it = gamePanel.fallingEntities.iterator();
-
-        while (it.hasNext()) {
-            FallingEntity e = it.next();
-            e.update(gameTime);
-
-            if (gamePanel.player.isCatching && e.checkCatch(gamePanel.player)) {
+        GameEvents.UpdateEntities event = GameEvents.UpdateEntities.start();
+        FallingEntityStore store = world.fallingEntities;
+        int startCount = store.size();
+        int startCaught = foodCaught;
+        int startMissed = foodMissed;
+        int startHits = bombHits;
+
+        Player player = world.player;
+        int[] x = store.x;
+        int[] y = store.y;
+
+        // Same for every object this tick
+        int fallStep = FallingEntity.fallStep(gameTime);
+        int catchRadius = world.tileSize + 20;
+        int bottom = world.screenHeight;
+
+        // === MOVE ===
+        // Objects past the bottom are only marked here; every outcome is
+        // applied together below, in spawn order
+        int count = store.size();
+        int words = CollisionKernel.maskWords(count);
+        Arrays.fill(missedBits, 0, words, 0L);
+        Arrays.fill(caughtBits, 0, words, 0L);
+        Arrays.fill(hitBits, 0, words, 0L);
+        for (int i = 0; i < count; i++) {
+            store.prevX[i] = x[i];
+            store.prevY[i] = y[i];
+            y[i] += fallStep;
+            if (y[i] > bottom) {
+                missedBits[i >> 6] |= 1L << i;
+            }
+        }
 
-                if (e.isBomb()) {
-                    gamePanel.player.losePoints(100);
-                    gamePanel.player.loseLife();
-                    gamePanel.gameSound.playBombHitSound();
+        // === BROADPHASE ===
+        // Only objects in grid cells the player can reach get the exact tests
+        grid.build(x, y, store.size());
+        int candidateCount = queryReach(player, catchRadius);
+        lastCandidatePairs = candidateCount;
+        totalCandidatePairs += candidateCount;
+        broadphaseTicks++;
+        broadphaseObjects += store.size();
+
+        // === EXACT CATCH / HIT TESTS ===
+        // Pack the candidates and test them in one batch
+        for (int c = 0; c < candidateCount; c++) {
+            int i = candidates[c];
+            candidateX[c] = x[i];
+            candidateY[c] = y[i];
+            candidateFlags[c] = store.flags[i];
+        }
+        CollisionKernel.test(candidateX, candidateY, candidateFlags, candidateCount,
+                player, catchRadius, caughtMask, hitMask, kernelScratch);
+
+        // Kernel results come in grid-cell order; file them by store index
+        for (int w = 0; w < CollisionKernel.maskWords(candidateCount); w++) {
+            long events = caughtMask[w] | hitMask[w];
+            while (events != 0) {
+                int bit = Long.numberOfTrailingZeros(events);
+                events &= events - 1;
+                int i = candidates[(w << 6) + bit];
+                if ((caughtMask[w] & (1L << bit)) != 0) {
+                    caughtBits[i >> 6] |= 1L << i;
                 } else {
-                    gamePanel.player.score += e.getPoints();
-                    gamePanel.gameSound.playCoinCollectSound();
+                    hitBits[i >> 6] |= 1L << i;
                 }
-                it.remove();
             }
+        }
 
-            else if (e.isBomb() && e.checkCollision(gamePanel.player)) {
-                gamePanel.player.losePoints(100);
-                gamePanel.player.loseLife();
-                gamePanel.gameSound.playBombHitSound();
-                it.remove();
+        // === APPLY ===
+        // Oldest object first, the order the original list of objects was
+        // walked in (score floors at 0, so the order matters). Falling off
+        // wins over a catch or hit in the same tick
+        int eventCount = 0;
+        long capacity = store.getCapacity();
+        for (int w = 0; w < words; w++) {
+            long events = missedBits[w] | caughtBits[w] | hitBits[w];
+            while (events != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(events);
+                events &= events - 1;
+                eventOrder[eventCount++] = store.spawnOrder[i] * capacity + i;
             }
-
-            else if (e.fellOffScreen()) {
-                if (!e.isBomb()) {
-                    gamePanel.player.losePoints(20);
-                    gamePanel.gameSound.playFoodCollectSound();
+        }
+        Arrays.sort(eventOrder, 0, eventCount);
+        for (int e = 0; e < eventCount; e++) {
+            int i = (int) (eventOrder[e] % capacity);
+            int w = i >> 6;
+            long bit = 1L << i;
+
+            if ((missedBits[w] & bit) != 0) {
+                // Fell off the bottom without being caught
+                if (!store.isBomb(i)) {
+                    foodMissed++;
+                    player.losePoints(20);
+                    world.gameSound.playFoodCollectSound();
                 }
-                it.remove();
+            } else if ((caughtBits[w] & bit) != 0 && !store.isBomb(i)) {
+                foodCaught++;
+                player.score += store.points[i];
+                world.gameSound.playCoinCollectSound();
+            } else {
+                // Bomb caught, or ran into the player without being caught
+                bombHits++;
+                player.losePoints(100);
+                player.loseLife();
+                world.gameSound.playBombHitSound();
             }
+        }
 
-            else if (!e.isActive()) {
-                it.remove();
+        // Highest index first, so every swap-remove pulls in a survivor
+        for (int w = words - 1; w >= 0; w--) {
+            long events = missedBits[w] | caughtBits[w] | hitBits[w];
+            while (events != 0) {
+                int bit = 63 - Long.numberOfLeadingZeros(events);
+                events &= ~(1L << bit);
+                store.remove((w << 6) + bit);
             }
         }
+
+        if (event != null && event.shouldCommit()) {
+            event.entityCount = startCount;
+            event.candidates = candidateCount;
+            event.caught = foodCaught - startCaught;
+            event.missed = foodMissed - startMissed;
+            event.bombHits = bombHits - startHits;
+            event.commit();
+        }
+    }
+
+    // Gather every object whose position could pass the catch test (when
+    // catching) or the bomb hit test, into candidates
+    private int queryReach(Player player, int catchRadius) {
+        // Hit test: object box overlaps the player's solid area
+        int playerLeft = player.worldX + player.solidArea.x;
+        int playerTop = player.worldY + player.solidArea.y;
+        int minX = playerLeft - FallingEntity.SOLID_X - FallingEntity.SOLID_WIDTH;
+        int maxX = playerLeft + player.solidArea.width - FallingEntity.SOLID_X;
+        int minY = playerTop - FallingEntity.SOLID_Y - FallingEntity.SOLID_HEIGHT;
+        int maxY = playerTop + player.solidArea.height - FallingEntity.SOLID_Y;
+
+        // Catch test: centers closer than the radius on both axes
+        if (player.isCatching) {
+            int centerX = player.worldX + (player.solidArea.width / 2) - (FallingEntity.SOLID_WIDTH / 2) - FallingEntity.SOLID_X;
+            int centerY = player.worldY + (player.solidArea.height / 2) - (FallingEntity.SOLID_HEIGHT / 2) - FallingEntity.SOLID_Y;
+            minX = Math.min(minX, centerX - catchRadius);
+            maxX = Math.max(maxX, centerX + catchRadius);
+            minY = Math.min(minY, centerY - catchRadius);
+            maxY = Math.max(maxY, centerY + catchRadius);
+        }
+
+        return grid.query(minX, minY, maxX, maxY, candidates);
+    }
+
+    // =========================
+    // INTERPOLATION
+    // =========================
+    // While the simulation is frozen, pin previous positions to the current
+    // ones so the renderer doesn't keep blending towards a stale tick
+    private void settleInterpolation() {
+        world.player.prevWorldX = world.player.worldX;
+        world.player.prevWorldY = world.player.worldY;
+        FallingEntityStore store = world.fallingEntities;
+        System.arraycopy(store.x, 0, store.prevX, 0, store.size());
+        System.arraycopy(store.y, 0, store.prevY, 0, store.size());
     }
 
     // =========================
     // GAME OVER
     // =========================
     private void checkGameOver() {
-        if (gamePanel.player.lives <= 0) {
-            stateManager.updateHighscoreIfNeeded(gamePanel.player.score);
+        if (world.player.lives <= 0) {
+            stateManager.updateHighscoreIfNeeded(world.player.score);
             stateManager.setGameState(GameStateManager.GAMEOVER_STATE);
             stateManager.setGameOverSelection(0);
-            gamePanel.gameSound.playDeadSound();
+            world.gameSound.playDeadSound();
         }
     }
 
@@ -206,14 +372,85 @@ public class GameplayManager {
         gameTime = 0;
         foodSpawnCounter = 0;
         bombSpawnCounter = 0;
-        gamePanel.fallingEntities.clear();
-        gamePanel.player.setDefaultValues();
-        gamePanel.player.score = 0;
-        gamePanel.player.lives = 9;
-        resetMusicFlags();
+        foodCaught = 0;
+        foodMissed = 0;
+        bombHits = 0;
+        world.fallingEntities.clear();
+        world.player.setDefaultValues();
+        world.player.score = 0;
+        world.player.lives = 9;
+        world.music.restart(); // A new round starts its music from the top
+    }
+
+    // =========================
+    // STATE HASH
+    // =========================
+    /**
+     * Hash of everything that decides what happens on later ticks
+     * (time, spawn timers, player, falling objects). With the same seed and
+     * the same inputs, two runs produce the same hash after every tick.
+     */
+    public long stateHash() {
+        Player player = world.player;
+        FallingEntityStore store = world.fallingEntities;
+
+        long h = HASH_OFFSET;
+        h = hash(h, stateManager.getGameState());
+        h = hash(h, stateManager.isPaused() ? 1 : 0);
+        h = hash(h, gameTime);
+        h = hash(h, foodSpawnCounter);
+        h = hash(h, bombSpawnCounter);
+        h = hash(h, player.worldX);
+        h = hash(h, player.worldY);
+        h = hash(h, player.score);
+        h = hash(h, player.lives);
+        h = hash(h, player.catchTimer);
+        h = hash(h, store.size());
+        for (int i = 0; i < store.size(); i++) {
+            h = hash(h, store.x[i]);
+            h = hash(h, store.y[i]);
+            h = hash(h, store.type[i]);
+        }
+        return h;
+    }
+
+    // FNV-1a style step over whole 64-bit values
+    private static long hash(long h, long value) {
+        return (h ^ value) * HASH_PRIME;
     }
 
     public long getGameTime() {
         return gameTime;
     }
+
+    // Round stats
+    public int getFoodCaught() {
+        return foodCaught;
+    }
+
+    public int getFoodMissed() {
+        return foodMissed;
+    }
+
+    public int getBombHits() {
+        return bombHits;
+    }
+
+    // Broadphase stats: objects handed to the exact tests
+    public int getLastCandidatePairs() {
+        return lastCandidatePairs;
+    }
+
+    public long getTotalCandidatePairs() {
+        return totalCandidatePairs;
+    }
+
+    public double getAverageCandidatePairs() {
+        return broadphaseTicks == 0 ? 0 : (double) totalCandidatePairs / broadphaseTicks;
+    }
+
+    // Objects the exact tests would have had without the broadphase
+    public double getAverageBroadphaseObjects() {
+        return broadphaseTicks == 0 ? 0 : (double) broadphaseObjects / broadphaseTicks;
+    }
 }
@@ -0,0 +1,216 @@
+package main;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+
+import entity.sounds;
+
+/**
+ * HeadlessGame - Runs the simulation with no window and no sound card
+ * A bot (or a recorded input log) plays one game at full CPU speed (no
+ * frame pacing), then the run prints ticks per second, bytes allocated per
+ * tick and the final score.
+ * Meant for soak tests and balance runs on machines without a display.
+ *
+ *   java -cp bin main.HeadlessGame
+ *
+ * Options (system properties):
+ *   catcher.seed          Seed for the game (default: random)
+ *   catcher.maxTicks      Stop after this many ticks even if the bot is still alive (default 1 hour of play)
+ *   catcher.stressSpawns  Extra food per tick, as in the windowed game
+ *   catcher.checkDeterminism  Play the same seed a second time and compare
+ *                         the state hash after every tick (exits 1 on a mismatch)
+ *   catcher.recordInput   Write the input of every tick to this file
+ *   catcher.replayInput   Play this recording (from a headless run) instead of the bot
+ *   catcher.audio         null (default) or capture: mix the game's audio into memory
+ *                         and report how long each sound cue took to become audible
+ *   catcher.captureFile   With capture, also write the mixed audio to this WAV file
+ *   catcher.captureThreshold  Sample level that counts as audible (default 256)
+ */
+public class HeadlessGame {
+
+	// Default cap on a single game: one hour of play
+	public static final long DEFAULT_MAX_TICKS = 60L * 60 * 60;
+
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		long maxTicks = Long.getLong("catcher.maxTicks", DEFAULT_MAX_TICKS);
+		long seed = Long.getLong("catcher.seed", System.nanoTime());
+		String replayPath = System.getProperty("catcher.replayInput");
+		String recordPath = System.getProperty("catcher.recordInput");
+
+		// A recording brings its own seed
+		InputReplay replay = replayPath != null ? openReplay(replayPath) : null;
+		if (replay != null) {
+			seed = replay.getSeed();
+		}
+
+		AudioBackend audio = "capture".equals(System.getProperty("catcher.audio"))
+				? new CaptureAudioBackend() : new NullSoundHandler();
+		GameWorld world = createWorld(audio, seed);
+		InputSource input = replay != null ? replay : new BotPlayer(world);
+		InputRecorder recorder = null;
+		if (recordPath != null) {
+			recorder = new InputRecorder(Paths.get(recordPath), InputLog.SOURCE_HEADLESS, seed, input);
+			input = recorder;
+		}
+		boolean checkDeterminism = Boolean.getBoolean("catcher.checkDeterminism");
+		long[] tickHashes = checkDeterminism ? new long[(int) Math.min(maxTicks, Integer.MAX_VALUE - 8)] : null;
+
+		// Per-thread allocation counter (HotSpot extension, not on every JVM)
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+				? (com.sun.management.ThreadMXBean) threads : null;
+		long threadId = Thread.currentThread().getId();
+
+		long startBytes = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+		long startTime = System.nanoTime();
+
+		GameResult result = play(world, input, seed, maxTicks, tickHashes);
+		long ticks = result.ticks;
+
+		long elapsed = System.nanoTime() - startTime;
+		long allocated = allocations != null ? allocations.getThreadAllocatedBytes(threadId) - startBytes : -1;
+		if (recorder != null) {
+			recorder.close();
+		}
+
+		double seconds = elapsed / 1e9;
+		System.out.printf("Ticks:        %d (%.1f min of game time)%n", ticks, ticks / 60.0 / 60.0);
+		System.out.printf("Wall time:    %.3f s%n", seconds);
+		System.out.printf("Ticks/s:      %.0f (%.2f us/tick)%n", ticks / seconds, elapsed / 1e3 / Math.max(1, ticks));
+		if (allocated >= 0) {
+			System.out.printf("Allocation:   %.1f bytes/tick (%d bytes total)%n", (double) allocated / Math.max(1, ticks), allocated);
+		} else {
+			System.out.println("Allocation:   not supported on this JVM");
+		}
+		System.out.printf("Final score:  %d (lives %d, %s, seed %d)%n", result.score, world.player.lives,
+				result.gameOver ? "game over" : "tick limit reached", seed);
+		System.out.printf("Food:         %d caught, %d missed (%.1f%%), %d bomb hits%n",
+				result.foodCaught, result.foodMissed, result.catchRate() * 100, result.bombHits);
+		System.out.printf("Objects:      peak %d of %d (catcher.maxEntities), %d spawns dropped with the store full%n",
+				world.fallingEntities.getHighWaterMark(), world.fallingEntities.getCapacity(),
+				world.fallingEntities.getExhaustedCount());
+		System.out.printf("Broadphase:   %.1f of %.1f objects per tick got the exact tests%n",
+				world.gameplayManager.getAverageCandidatePairs(), world.gameplayManager.getAverageBroadphaseObjects());
+		System.out.println("Sounds:       " + audio.getStatsSummary());
+		if (audio instanceof CaptureAudioBackend) {
+			reportCapture((CaptureAudioBackend) audio);
+		}
+		System.out.printf("State hash:   %016x%n", world.stateHash());
+		if (recorder != null) {
+			System.out.printf("Recorded:     %d ticks to %s%n", recorder.getTicks(), recordPath);
+		}
+
+		if (checkDeterminism) {
+			// Replay the seed in a fresh world with the same input (the bot
+			// only reacts to the world, so identical states mean identical input)
+			GameWorld again = createWorld(new NullSoundHandler(), seed);
+			InputSource againInput = replayPath != null ? openReplay(replayPath) : new BotPlayer(again);
+			long[] replayHashes = new long[tickHashes.length];
+			GameResult second = play(again, againInput, seed, maxTicks, replayHashes);
+			long count = Math.min(result.ticks, second.ticks);
+			for (int t = 0; t < count; t++) {
+				if (tickHashes[t] != replayHashes[t]) {
+					System.out.printf("Determinism:  DIVERGED at tick %d (%016x vs %016x)%n", t + 1, tickHashes[t], replayHashes[t]);
+					System.exit(1);
+				}
+			}
+			if (result.ticks != second.ticks) {
+				System.out.printf("Determinism:  DIVERGED, games lasted %d and %d ticks%n", result.ticks, second.ticks);
+				System.exit(1);
+			}
+			System.out.printf("Determinism:  identical state hash on all %d ticks%n", count);
+		}
+	}
+
+	/**
+	 * Build a quiet world with no window
+	 *
+	 * @param audio Where its sounds go (a NullSoundHandler or a CaptureAudioBackend)
+	 */
+	public static GameWorld createWorld(AudioBackend audio, long seed) {
+		GameWorld world = new GameWorld(new sounds(audio), seed);
+		world.player.logEvents = false;
+		return world;
+	}
+
+	// Print when each captured sound cue became audible, and write the WAV if asked
+	private static void reportCapture(CaptureAudioBackend capture) throws IOException {
+		int threshold = Integer.getInteger("catcher.captureThreshold", 256);
+		double framesPerMilli = SoftwareMixer.FORMAT.getFrameRate() / 1000.0;
+		int cues = 0;
+		int silent = 0;
+		long maxFrames = 0;
+		long totalFrames = 0;
+		for (int i = 0; i < capture.getEventCount(); i++) {
+			if (capture.getEventType(i) != CaptureAudioBackend.EVENT_PLAY
+					|| !capture.isSoundLoaded(capture.getEventName(i))
+					|| capture.getEventFrame(i) >= capture.getCapturedFrames()) {
+				continue;
+			}
+			cues++;
+			long onset = capture.onsetFrame(capture.getEventFrame(i), threshold);
+			if (onset < 0) {
+				silent++;
+				continue;
+			}
+			long latency = onset - capture.getEventFrame(i);
+			maxFrames = Math.max(maxFrames, latency);
+			totalFrames += latency;
+		}
+		int heard = cues - silent;
+		System.out.printf("Sound cues:   %d played, %d never audible, onset after tick mean %.2f ms, max %.2f ms%n",
+				cues, silent, heard > 0 ? totalFrames / framesPerMilli / heard : 0.0, maxFrames / framesPerMilli);
+
+		String wavPath = System.getProperty("catcher.captureFile");
+		if (wavPath != null) {
+			capture.writeWav(wavPath);
+			System.out.printf("Captured:     %d frames to %s%n", capture.getCapturedFrames(), wavPath);
+		}
+	}
+
+	// Open a headless recording, or stop with a message
+	private static InputReplay openReplay(String path) throws IOException {
+		InputReplay replay = new InputReplay(Paths.get(path));
+		if (replay.getSource() != InputLog.SOURCE_HEADLESS) {
+			System.out.println(path + " was recorded in the window (menus included); replay it there with -Dcatcher.replayInput");
+			System.exit(2);
+		}
+		return replay;
+	}
+
+	/**
+	 * Start a new round and play it until game over, the tick limit or the end of the input
+	 *
+	 * @param input Sets the keys before every tick (a bot or a replay)
+	 * @param seed Seed the world was built with (recorded in the result)
+	 */
+	public static GameResult play(GameWorld world, InputSource input, long seed, long maxTicks) {
+		return play(world, input, seed, maxTicks, null);
+	}
+
+	/**
+	 * Same as play(), also recording the state hash after every tick
+	 *
+	 * @param tickHashes Receives the hash after tick t at index t - 1 (may be null)
+	 */
+	public static GameResult play(GameWorld world, InputSource input, long seed, long maxTicks, long[] tickHashes) {
+		world.startGame();
+		long ticks = 0;
+		while (ticks < maxTicks && world.stateManager.getGameState() == GameStateManager.GAME_STATE
+				&& !input.isFinished()) {
+			world.pollInput(input);
+			world.tick();
+			if (tickHashes != null && ticks < tickHashes.length) {
+				tickHashes[(int) ticks] = world.stateHash();
+			}
+			ticks++;
+		}
+
+		GameplayManager gameplay = world.gameplayManager;
+		return new GameResult(seed, world.player.score, ticks, gameplay.getFoodCaught(), gameplay.getFoodMissed(),
+				gameplay.getBombHits(), world.stateManager.getGameState() == GameStateManager.GAMEOVER_STATE);
+	}
+}
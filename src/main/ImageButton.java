@@ -10,6 +10,9 @@ import java.awt.image.BufferedImage;
  */
 public class ImageButton {
 	
+	// Debug collision area fill (fully transparent unless changed)
+	private static final Color COLLISION_AREA_COLOR = new Color(0, 0, 0, 0);
+	
 	private BufferedImage normalImage;
 	private BufferedImage highlightedImage;
 	private int x;
@@ -21,7 +24,7 @@ public class ImageButton {
 	private int originalX;
 	private int originalY;
 	private final int HOVER_OFFSET = 5; // Pixels to move when hovered
-	private SoundHandler soundHandler; // Reference to play hover and click sounds
+	private AudioBackend soundHandler; // Reference to play hover and click sounds
 	
 	// Collision area parameters (can be edited separately from visual size)
 	private int collisionX;
@@ -64,10 +67,10 @@ public class ImageButton {
 	 * @param y Y position of the button
 	 * @param width Width of the button
 	 * @param height Height of the button
-	 * @param soundHandler Reference to SoundHandler for button sounds
+	 * @param soundHandler Where the button sounds go
 	 */
 	public ImageButton(BufferedImage normalImage, BufferedImage highlightedImage, 
-	                    int x, int y, int width, int height, SoundHandler soundHandler) {
+	                    int x, int y, int width, int height, AudioBackend soundHandler) {
 		this.normalImage = normalImage;
 		this.highlightedImage = highlightedImage;
 		this.x = x;
@@ -101,7 +104,7 @@ public class ImageButton {
 	 * @param g2 Graphics2D object for drawing
 	 */
 	public void drawCollisionArea(Graphics2D g2) {
-		g2.setColor(new Color(0, 0, 0, 0)); // Semi-transparent red
+		g2.setColor(COLLISION_AREA_COLOR);
 		g2.fillRect(collisionX, collisionY, collisionWidth, collisionHeight);
 	
 	}
@@ -266,10 +269,10 @@ public class ImageButton {
 	}
 	
 	/**
-	 * Set the SoundHandler for this button (can be set later if needed)
-	 * @param soundHandler Reference to SoundHandler
+	 * Set the audio backend for this button (can be set later if needed)
+	 * @param soundHandler Where the button sounds go
 	 */
-	public void setSoundHandler(SoundHandler soundHandler) {
+	public void setSoundHandler(AudioBackend soundHandler) {
 		this.soundHandler = soundHandler;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InputEventQueue - Lock-free hand-off of input events from the EDT to the game thread
+ * Single producer (the AWT event thread, through the key and mouse
+ * listeners), single consumer (the game thread, once per tick). Events
+ * are packed into longs in a fixed ring, so neither side locks or
+ * allocates. The listeners never touch game state; only drain() does,
+ * on the game thread.
+ */
+public final class InputEventQueue {
+
+	// Event kinds
+	static final int KEY_DOWN = 0;
+	static final int KEY_UP = 1;
+	static final int MOUSE_DOWN = 2;
+	static final int MOUSE_UP = 3;
+	static final int MOUSE_MOVE = 4;
+
+	private final long[] events;
+	private final long[] times; // System.nanoTime() when each event was queued
+	private final int mask;
+
+	// Ever-increasing positions; slot = position & mask
+	private final AtomicLong head = new AtomicLong(); // Next to read (written by the consumer)
+	private final AtomicLong tail = new AtomicLong(); // Next to write (written by the producer)
+
+	// Stats
+	private volatile long dropped = 0; // Events lost because the ring was full (producer)
+	private volatile long drained = 0; // Events handed to the game (consumer)
+	private volatile long maxLatencyNanos = 0; // Longest queue-to-tick delay seen (consumer)
+	private volatile long lastLatencyNanos = 0; // Oldest event's delay in the last non-empty drain
+
+	/**
+	 * @param capacity Ring size, rounded up to a power of two
+	 */
+	public InputEventQueue(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		events = new long[size];
+		times = new long[size];
+		mask = size - 1;
+	}
+
+	// ========================================
+	// PRODUCER (EDT)
+	// ========================================
+	/**
+	 * Queue an event
+	 *
+	 * @param kind One of the event kind constants
+	 * @param code Key bit (InputFrame.KEY_*) or mouse button
+	 * @return false if the ring was full and the event was dropped
+	 */
+	boolean offer(int kind, int code, int x, int y) {
+		long t = tail.get();
+		if (t - head.get() > mask) {
+			dropped++;
+			return false;
+		}
+		int slot = (int) t & mask;
+		events[slot] = ((long) kind << 48) | ((long) (code & 0xFFFF) << 32)
+				| ((long) (x & 0xFFFF) << 16) | (y & 0xFFFF);
+		times[slot] = System.nanoTime();
+		tail.lazySet(t + 1); // Ordered after the slot writes above
+		return true;
+	}
+
+	// ========================================
+	// CONSUMER (game thread)
+	// ========================================
+	/**
+	 * Apply every queued event, oldest first, to the key and mouse state
+	 *
+	 * @return number of events applied
+	 */
+	public int drain(KeyHandler keys, MouseHandler mouse) {
+		long h = head.get();
+		long t = tail.get();
+		if (h == t) {
+			return 0;
+		}
+
+		long now = System.nanoTime();
+		long oldest = now - times[(int) h & mask];
+		for (long p = h; p < t; p++) {
+			long e = events[(int) p & mask];
+			int kind = (int) (e >>> 48);
+			int code = (int) (e >>> 32) & 0xFFFF;
+			int x = (short) (e >>> 16);
+			int y = (short) e;
+			switch (kind) {
+			case KEY_DOWN: keys.applyKey(code, true); break;
+			case KEY_UP: keys.applyKey(code, false); break;
+			case MOUSE_DOWN: mouse.applyButton(code, true, x, y); break;
+			case MOUSE_UP: mouse.applyButton(code, false, x, y); break;
+			case MOUSE_MOVE: mouse.applyMove(x, y); break;
+			}
+		}
+		head.lazySet(t); // Hand the slots back to the producer
+
+		drained += t - h;
+		lastLatencyNanos = oldest;
+		if (oldest > maxLatencyNanos) {
+			maxLatencyNanos = oldest;
+		}
+		return (int) (t - h);
+	}
+
+	// Stats getters
+	public long getDropped() { return dropped; }
+	public long getDrained() { return drained; }
+	public long getMaxLatencyNanos() { return maxLatencyNanos; }
+	public long getLastLatencyNanos() { return lastLatencyNanos; }
+}
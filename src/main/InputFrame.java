@@ -0,0 +1,77 @@
+package main;
+
+/**
+ * InputFrame - Everything the game may know about input for one tick
+ * Built once per tick on the game thread (GameWorld.pollInput) from the
+ * key and mouse state, and only read afterwards. Edges are worked out
+ * here, once, so game code asks pressed(KEY_SPACE) instead of keeping
+ * its own wasPressed flags:
+ *  - held:     key is down at the start of the tick
+ *  - pressed:  key went down since the last tick (even if it was let go
+ *              again before this tick started, so quick taps count)
+ *  - released: key was held last tick and isn't now
+ * A click counts in the tick it happened in and in no other.
+ *
+ * GameWorld reuses two frames (this tick and last tick), so the game
+ * loop allocates nothing for input; treat a frame as read-only and don't
+ * keep it past its tick.
+ */
+public final class InputFrame {
+
+	// Key bits
+	public static final int KEY_UP = 1;
+	public static final int KEY_DOWN = 1 << 1;
+	public static final int KEY_LEFT = 1 << 2;
+	public static final int KEY_RIGHT = 1 << 3;
+	public static final int KEY_SHIFT = 1 << 4;
+	public static final int KEY_SPACE = 1 << 5;
+	public static final int KEY_ESC = 1 << 6;
+	public static final int KEY_W = 1 << 7;
+	public static final int KEY_S = 1 << 8;
+	public static final int KEY_L = 1 << 9;
+	public static final int KEY_F3 = 1 << 10; // Frame-time overlay
+
+	private long tick;
+	private int held;
+	private int pressed;
+	private int released;
+	private int mouseX;
+	private int mouseY;
+	private boolean leftHeld;
+	private boolean leftClicked;
+	private boolean rightClicked;
+
+	InputFrame() {}
+
+	/**
+	 * Fill this frame from the current key/mouse state
+	 * Takes (and clears) the presses and clicks latched since the last frame
+	 *
+	 * @param previous The frame of the tick before
+	 */
+	void capture(long tick, InputFrame previous, KeyHandler keys, MouseHandler mouse) {
+		this.tick = tick;
+		held = keys.getHeldKeys();
+		pressed = (held & ~previous.held) | keys.takePressedKeys();
+		released = previous.held & ~held;
+		mouseX = mouse.mouseX;
+		mouseY = mouse.mouseY;
+		leftHeld = mouse.leftPressed;
+		leftClicked = mouse.leftClicked;
+		rightClicked = mouse.rightClicked;
+		mouse.leftClicked = false;
+		mouse.rightClicked = false;
+	}
+
+	// Getters
+	public long getTick() { return tick; }
+	public boolean held(int key) { return (held & key) != 0; }
+	public boolean pressed(int key) { return (pressed & key) != 0; }
+	public boolean released(int key) { return (released & key) != 0; }
+	public int getHeldKeys() { return held; }
+	public int getMouseX() { return mouseX; }
+	public int getMouseY() { return mouseY; }
+	public boolean isLeftHeld() { return leftHeld; }
+	public boolean isLeftClicked() { return leftClicked; }
+	public boolean isRightClicked() { return rightClicked; }
+}
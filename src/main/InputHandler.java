@@ -7,24 +7,26 @@ public class InputHandler {
 	private GamePanel gamePanel;
 	private GameStateManager stateManager;
 	private UIRenderer uiRenderer;
-	private KeyHandler keyH;
-	private MouseHandler mouseH;
+	private InputFrame input; // This tick's input
 	
-	public InputHandler(GamePanel gamePanel, GameStateManager stateManager, UIRenderer uiRenderer,
-					   KeyHandler keyH, MouseHandler mouseH) {
+	public InputHandler(GamePanel gamePanel, GameStateManager stateManager, UIRenderer uiRenderer) {
 		this.gamePanel = gamePanel;
 		this.stateManager = stateManager;
 		this.uiRenderer = uiRenderer;
-		this.keyH = keyH;
-		this.mouseH = mouseH;
 	}
 	
 	public void handleInput() {
+		input = gamePanel.world.getInput();
+		
+		// F3 toggles the frame-time overlay
+		if (input.pressed(InputFrame.KEY_F3)) {
+			gamePanel.toggleFrameStats();
+		}
+		
 		// DEBUG: Press L to go to game over screen
-		if (keyH.lPressed) {
+		if (input.pressed(InputFrame.KEY_L)) {
 			stateManager.setGameState(GameStateManager.GAMEOVER_STATE);
 			stateManager.setGameOverSelection(0);
-			keyH.lPressed = false;
 		}
 		
 		if (stateManager.isPaused()) {
@@ -42,128 +44,105 @@ public class InputHandler {
 	
 	private void handleMenuInput() {
 		// UP and DOWN arrow keys to navigate
-		if (keyH.upPressed && !keyH.upWasPressed) {
+		if (input.pressed(InputFrame.KEY_UP)) {
 			stateManager.setMenuSelection((stateManager.getMenuSelection() - 1 + 2) % 2);
-			keyH.upWasPressed = true;
 		}
-		if (keyH.downPressed && !keyH.downWasPressed) {
+		if (input.pressed(InputFrame.KEY_DOWN)) {
 			stateManager.setMenuSelection((stateManager.getMenuSelection() + 1) % 2);
-			keyH.downWasPressed = true;
 		}
 		
-		if (!keyH.upPressed) keyH.upWasPressed = false;
-		if (!keyH.downPressed) keyH.downWasPressed = false;
-		
 		// Update button selection states
 		uiRenderer.getPlayButton().setSelected(stateManager.getMenuSelection() == 0);
 		uiRenderer.getHighscoreButton().setSelected(stateManager.getMenuSelection() == 1);
 		
 		// Mouse hover detection
-		if (uiRenderer.getPlayButton().isMouseOver(mouseH.mouseX, mouseH.mouseY)) {
+		if (uiRenderer.getPlayButton().isMouseOver(input.getMouseX(), input.getMouseY())) {
 			stateManager.setMenuSelection(0);
-			if (mouseH.leftClicked) {
+			if (input.isLeftClicked()) {
 				startNewGame();
-				mouseH.resetClick();
 			}
 		}
 		
-		if (uiRenderer.getHighscoreButton().isMouseOver(mouseH.mouseX, mouseH.mouseY)) {
+		if (uiRenderer.getHighscoreButton().isMouseOver(input.getMouseX(), input.getMouseY())) {
 			stateManager.setMenuSelection(1);
-			if (mouseH.leftClicked) {
+			if (input.isLeftClicked()) {
 				stateManager.setGameState(GameStateManager.HIGHSCORE_STATE);
-				mouseH.resetClick();
 			}
 		}
 		
 		// SPACE to select
-		if (keyH.spacePressed && !keyH.spaceWasPressed) {
+		if (input.pressed(InputFrame.KEY_SPACE)) {
 			if (stateManager.getMenuSelection() == 0) {
 				startNewGame();
 			} else if (stateManager.getMenuSelection() == 1) {
 				stateManager.setGameState(GameStateManager.HIGHSCORE_STATE);
 			}
-			keyH.spaceWasPressed = true;
 		}
-		if (!keyH.spacePressed) keyH.spaceWasPressed = false;
 	}
 	
 	private void handleHighscoreInput() {
 		// Back button collision detection
-		uiRenderer.getBackButton().setSelected(uiRenderer.getBackButton().isMouseOver(mouseH.mouseX, mouseH.mouseY));
+		uiRenderer.getBackButton().setSelected(uiRenderer.getBackButton().isMouseOver(input.getMouseX(), input.getMouseY()));
 		
-		if (uiRenderer.getBackButton().isMouseOver(mouseH.mouseX, mouseH.mouseY)) {
-			if (mouseH.leftClicked) {
+		if (uiRenderer.getBackButton().isMouseOver(input.getMouseX(), input.getMouseY())) {
+			if (input.isLeftClicked()) {
 				stateManager.setGameState(GameStateManager.MENU_STATE);
 				stateManager.setMenuSelection(0);
-				mouseH.resetClick();
 			}
 		}
 		
 		// SPACE or mouse click to go back to menu
-		if (keyH.spacePressed && !keyH.spaceWasPressed) {
+		if (input.pressed(InputFrame.KEY_SPACE)) {
 			stateManager.setGameState(GameStateManager.MENU_STATE);
 			stateManager.setMenuSelection(0);
-			keyH.spaceWasPressed = true;
 		}
-		if (!keyH.spacePressed) keyH.spaceWasPressed = false;
 	}
 	
 	private void handleGameInput() {
 		// Check for pause
-		if (keyH.escPressed && !keyH.escWasPressed) {
+		if (input.pressed(InputFrame.KEY_ESC)) {
 			stateManager.setPaused(true);
 			stateManager.setPauseMenuSelection(0);
-			keyH.escWasPressed = true;
 		}
-		if (!keyH.escPressed) keyH.escWasPressed = false;
 	}
 	
 	private void handlePauseMenuInput() {
 		// ESC to resume
-		if (keyH.escPressed && !keyH.escWasPressed) {
+		if (input.pressed(InputFrame.KEY_ESC)) {
 			stateManager.setPaused(false);
-			keyH.escWasPressed = true;
 		}
-		if (!keyH.escPressed) keyH.escWasPressed = false;
 		
 		// UP and DOWN arrow keys to navigate
-		if (keyH.upPressed && !keyH.upWasPressed) {
+		if (input.pressed(InputFrame.KEY_UP)) {
 			stateManager.setPauseMenuSelection((stateManager.getPauseMenuSelection() - 1 + 2) % 2);
-			keyH.upWasPressed = true;
 		}
-		if (keyH.downPressed && !keyH.downWasPressed) {
+		if (input.pressed(InputFrame.KEY_DOWN)) {
 			stateManager.setPauseMenuSelection((stateManager.getPauseMenuSelection() + 1) % 2);
-			keyH.downWasPressed = true;
 		}
 		
-		if (!keyH.upPressed) keyH.upWasPressed = false;
-		if (!keyH.downPressed) keyH.downWasPressed = false;
-		
 		// Update button selection states
 		uiRenderer.getContinueButton().setSelected(stateManager.getPauseMenuSelection() == 0);
 		uiRenderer.getPauseMenuButton().setSelected(stateManager.getPauseMenuSelection() == 1);
 		
 		// Mouse detection for buttons
-		if (uiRenderer.getContinueButton().isMouseOver(mouseH.mouseX, mouseH.mouseY)) {
+		if (uiRenderer.getContinueButton().isMouseOver(input.getMouseX(), input.getMouseY())) {
 			stateManager.setPauseMenuSelection(0);
-			if (mouseH.leftClicked) {
+			if (input.isLeftClicked()) {
 				stateManager.setPaused(false);
-				mouseH.resetClick();
 			}
 		}
 		
-		if (uiRenderer.getPauseMenuButton().isMouseOver(mouseH.mouseX, mouseH.mouseY)) {
+		if (uiRenderer.getPauseMenuButton().isMouseOver(input.getMouseX(), input.getMouseY())) {
 			stateManager.setPauseMenuSelection(1);
-			if (mouseH.leftClicked) {
+			if (input.isLeftClicked()) {
 				stateManager.setPaused(false);
 				stateManager.setGameState(GameStateManager.MENU_STATE);
 				stateManager.setMenuSelection(0);
-				mouseH.resetClick();
 			}
 		}
 		
 		// SPACE to select
-		if (keyH.spacePressed && !keyH.spaceWasPressed) {
+		if (input.pressed(InputFrame.KEY_SPACE)) {
 			if (stateManager.getPauseMenuSelection() == 0) {
 				stateManager.setPaused(false);
 			} else if (stateManager.getPauseMenuSelection() == 1) {
@@ -171,9 +150,7 @@ public class InputHandler {
 				stateManager.setGameState(GameStateManager.MENU_STATE);
 				stateManager.setMenuSelection(0);
 			}
-			keyH.spaceWasPressed = true;
 		}
-		if (!keyH.spacePressed) keyH.spaceWasPressed = false;
 	}
 	
 	private void handleGameOverInput() {
@@ -184,17 +161,15 @@ public class InputHandler {
 		uiRenderer.getGameoverMenuButton().setSelected(stateManager.getGameOverSelection() == 1);
 		
 		// Mouse hover detection
-		if (uiRenderer.getRetryButton().isMouseOver(mouseH.mouseX, mouseH.mouseY)) {
+		if (uiRenderer.getRetryButton().isMouseOver(input.getMouseX(), input.getMouseY())) {
 			stateManager.setGameOverSelection(0);
-			if (mouseH.leftClicked) {
+			if (input.isLeftClicked()) {
 				handleGameOverSelection();
-				mouseH.resetClick();
 			}
-		} else if (uiRenderer.getGameoverMenuButton().isMouseOver(mouseH.mouseX, mouseH.mouseY)) {
+		} else if (uiRenderer.getGameoverMenuButton().isMouseOver(input.getMouseX(), input.getMouseY())) {
 			stateManager.setGameOverSelection(1);
-			if (mouseH.leftClicked) {
+			if (input.isLeftClicked()) {
 				handleGameOverSelection();
-				mouseH.resetClick();
 			}
 		}
 		
@@ -205,7 +180,6 @@ public class InputHandler {
 		if (stateManager.getGameOverSelection() == 0) {
 			startNewGame();
 		} else if (stateManager.getGameOverSelection() == 1) {
-			gamePanel.gameSound.playMenuMusic();
 			stateManager.setGameState(GameStateManager.MENU_STATE);
 			stateManager.setMenuSelection(0);
 		}
@@ -213,7 +187,6 @@ public class InputHandler {
 	
 	private void startNewGame() {
 		gamePanel.gameplayManager.reset();
-		gamePanel.gameSound.playBackgroundMusic();
 		stateManager.setGameState(GameStateManager.GAME_STATE);
 	}
 }
@@ -0,0 +1,51 @@
+package main;
+
+/**
+ * InputLog - Binary format shared by InputRecorder and InputReplay
+ *
+ * Header:
+ *   int   MAGIC ("CATI")
+ *   byte  VERSION
+ *   byte  source (SOURCE_WINDOW or SOURCE_HEADLESS)
+ *   long  simulation seed
+ * Then runs until end of file, one per change of input:
+ *   varint ticks the state below lasted (at least 1)
+ *   short  held keys (InputFrame.KEY_* bits)
+ *   short  keys pressed since the previous tick (quick taps)
+ *   byte   mouse bits (MOUSE_*)
+ *   short  mouse X, short mouse Y
+ *
+ * Only raw device state is stored; InputFrame works the edges out again
+ * on replay.
+ */
+final class InputLog {
+
+	static final int MAGIC = 0x43415449; // "CATI"
+	static final int VERSION = 2;
+
+	// Where the log was recorded. Window logs include menu input handled
+	// by InputHandler; headless games start straight in play
+	static final int SOURCE_WINDOW = 0;
+	static final int SOURCE_HEADLESS = 1;
+
+	// Mouse bits
+	static final int MOUSE_LEFT_CLICKED = 1;
+	static final int MOUSE_LEFT_PRESSED = 1 << 1;
+	static final int MOUSE_RIGHT_CLICKED = 1 << 2;
+
+	private InputLog() {}
+
+	static int packMouse(MouseHandler m) {
+		return (m.leftClicked ? MOUSE_LEFT_CLICKED : 0)
+				| (m.leftPressed ? MOUSE_LEFT_PRESSED : 0)
+				| (m.rightClicked ? MOUSE_RIGHT_CLICKED : 0);
+	}
+
+	static void unpackMouse(int bits, int x, int y, MouseHandler m) {
+		m.leftClicked = (bits & MOUSE_LEFT_CLICKED) != 0;
+		m.leftPressed = (bits & MOUSE_LEFT_PRESSED) != 0;
+		m.rightClicked = (bits & MOUSE_RIGHT_CLICKED) != 0;
+		m.mouseX = x;
+		m.mouseY = y;
+	}
+}
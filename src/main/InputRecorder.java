@@ -0,0 +1,124 @@
+package main;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * InputRecorder - Writes the input every tick saw to an InputLog file
+ * Wraps another InputSource (or the window's own listeners when that is
+ * null) and records the state after it has been applied. Consecutive
+ * ticks with the same input are stored as one run, so idle time costs
+ * almost nothing.
+ */
+public class InputRecorder implements InputSource {
+
+	private final InputSource inner;
+	private DataOutputStream out;
+
+	// Current run
+	private int runKeys, runPressed, runMouse, runX, runY;
+	private long runLength = 0;
+	private long ticks = 0;
+
+	/**
+	 * @param path File to write (replaced if it exists)
+	 * @param source InputLog.SOURCE_WINDOW or InputLog.SOURCE_HEADLESS
+	 * @param seed Seed of the world being recorded
+	 * @param inner Source to record, or null to record the live listeners
+	 */
+	public InputRecorder(Path path, int source, long seed, InputSource inner) throws IOException {
+		this.inner = inner;
+		this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+		out.writeInt(InputLog.MAGIC);
+		out.writeByte(InputLog.VERSION);
+		out.writeByte(source);
+		out.writeLong(seed);
+	}
+
+	@Override
+	public synchronized void nextTick(KeyHandler keys, MouseHandler mouse) {
+		if (inner != null) {
+			inner.nextTick(keys, mouse);
+		}
+		if (out == null) {
+			return; // Already closed
+		}
+
+		int k = keys.getHeldKeys();
+		int p = keys.pressedKeys;
+		int m = InputLog.packMouse(mouse);
+		int x = mouse.mouseX;
+		int y = mouse.mouseY;
+		if (runLength > 0 && (k != runKeys || p != runPressed || m != runMouse || x != runX || y != runY)) {
+			writeRun();
+		}
+		if (runLength == 0) {
+			runKeys = k;
+			runPressed = p;
+			runMouse = m;
+			runX = x;
+			runY = y;
+		}
+		runLength++;
+		ticks++;
+	}
+
+	@Override
+	public boolean isFinished() {
+		return inner != null && inner.isFinished();
+	}
+
+	/**
+	 * Flush the last run and close the file (safe to call more than once)
+	 */
+	public synchronized void close() {
+		if (out == null) {
+			return;
+		}
+		try {
+			if (runLength > 0) {
+				writeRun();
+			}
+			out.close();
+		} catch (IOException e) {
+			System.out.println("Error writing input recording: " + e.getMessage());
+		}
+		out = null;
+	}
+
+	public synchronized long getTicks() {
+		return ticks;
+	}
+
+	private void writeRun() {
+		try {
+			writeVarLong(runLength);
+			out.writeShort(runKeys);
+			out.writeShort(runPressed);
+			out.writeByte(runMouse);
+			out.writeShort(runX);
+			out.writeShort(runY);
+		} catch (IOException e) {
+			// Stop recording rather than take the game down
+			System.out.println("Error writing input recording: " + e.getMessage());
+			try {
+				out.close();
+			} catch (IOException ignored) {
+			}
+			out = null;
+		}
+		runLength = 0;
+	}
+
+	// 7 bits per byte, low bits first, high bit set on all but the last byte
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+}
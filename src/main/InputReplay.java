@@ -0,0 +1,130 @@
+package main;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * InputReplay - Plays an InputLog file back into KeyHandler/MouseHandler
+ * Each tick gets exactly the input it had when recorded. Together with
+ * the recorded seed this reproduces the original run tick for tick.
+ * After the last recorded tick all keys and buttons read as released.
+ */
+public class InputReplay implements InputSource {
+
+	private final DataInputStream in;
+	private final int source;
+	private final long seed;
+
+	// Current run
+	private int runKeys, runPressed, runMouse, runX, runY;
+	private long runLeft = 0;
+	private boolean finished = false;
+	private long ticks = 0;
+
+	/**
+	 * Open a recording and read its header
+	 *
+	 * @throws IOException if the file can't be read or isn't an input log
+	 */
+	public InputReplay(Path path) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+		if (in.readInt() != InputLog.MAGIC) {
+			in.close();
+			throw new IOException("Not an input recording: " + path);
+		}
+		int version = in.readUnsignedByte();
+		if (version != InputLog.VERSION) {
+			in.close();
+			throw new IOException("Unsupported input recording version " + version + ": " + path);
+		}
+		source = in.readUnsignedByte();
+		seed = in.readLong();
+	}
+
+	/**
+	 * @return InputLog.SOURCE_WINDOW or InputLog.SOURCE_HEADLESS
+	 */
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * @return seed of the recorded world
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return number of ticks replayed so far
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	@Override
+	public void nextTick(KeyHandler keys, MouseHandler mouse) {
+		if (runLeft == 0 && !finished) {
+			readRun();
+		}
+		if (finished) {
+			keys.setHeldKeys(0);
+			keys.pressedKeys = 0;
+			InputLog.unpackMouse(0, mouse.mouseX, mouse.mouseY, mouse);
+			return;
+		}
+		keys.setHeldKeys(runKeys);
+		keys.pressedKeys = runPressed;
+		InputLog.unpackMouse(runMouse, runX, runY, mouse);
+		runLeft--;
+		ticks++;
+	}
+
+	@Override
+	public boolean isFinished() {
+		if (runLeft == 0 && !finished) {
+			readRun();
+		}
+		return finished;
+	}
+
+	private void readRun() {
+		try {
+			runLeft = readVarLong();
+			runKeys = in.readUnsignedShort();
+			runPressed = in.readUnsignedShort();
+			runMouse = in.readUnsignedByte();
+			runX = in.readShort();
+			runY = in.readShort();
+		} catch (EOFException e) {
+			finish();
+		} catch (IOException e) {
+			System.out.println("Error reading input recording: " + e.getMessage());
+			finish();
+		}
+	}
+
+	private void finish() {
+		finished = true;
+		runLeft = 0;
+		try {
+			in.close();
+		} catch (IOException ignored) {
+		}
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package main;
+
+/**
+ * InputSource - Supplies the key and mouse state for each simulation tick
+ * The window's listeners fill KeyHandler/MouseHandler through the
+ * InputEventQueue; a bot or a replay sets the same fields here instead,
+ * so the InputFrame built from them looks the same either way.
+ */
+public interface InputSource {
+
+	/**
+	 * Set the input state for the coming tick
+	 * Called once per tick, before the tick runs
+	 */
+	void nextTick(KeyHandler keys, MouseHandler mouse);
+
+	/**
+	 * @return true once this source has no more input to give
+	 */
+	default boolean isFinished() {
+		return false;
+	}
+}
@@ -4,86 +4,119 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
 public class KeyHandler implements KeyListener {
-	
-	public boolean upPressed, downPressed, leftPressed, rightPressed, shiftKeyPressed, spacePressed, escPressed, wPressed, sPressed, lPressed;
-	public boolean upWasPressed = false, downWasPressed = false, spaceWasPressed = false, escWasPressed = false, wWasPressed = false, sWasPressed = false;
+
+	// Key state, owned by the game thread. The listener methods below run
+	// on the EDT and only queue events; InputEventQueue.drain() applies them
+	public boolean upPressed, downPressed, leftPressed, rightPressed, shiftKeyPressed, spacePressed, escPressed, wPressed, sPressed, lPressed, f3Pressed;
+
+	// Keys that went down since the last input frame (InputFrame.KEY_* bits)
+	public int pressedKeys = 0;
+
+	private final InputEventQueue events;
+
+	/**
+	 * @param events Queue the listener methods post to (null = not listening)
+	 */
+	public KeyHandler(InputEventQueue events) {
+		this.events = events;
+	}
 
 	@Override
 	public void keyTyped(KeyEvent egit)	 {
-	
+
 	}
 
 	@Override
 	public void keyPressed(KeyEvent egit) {
-		int code = egit.getKeyCode();
-		
-		if(code == KeyEvent.VK_W || code == KeyEvent.VK_UP) {
-			upPressed = true;
-			
+		int key = keyFor(egit.getKeyCode());
+		if (key != 0 && events != null) {
+			events.offer(InputEventQueue.KEY_DOWN, key, 0, 0);
 		}
-		if(code == KeyEvent.VK_S || code == KeyEvent.VK_DOWN) {
-			downPressed = true;
-			
-		}
-		if(code == KeyEvent.VK_A) {
-			leftPressed = true;
-			
-		}
-		if(code == KeyEvent.VK_D) {
-			rightPressed = true;
-			
-		}if(code == KeyEvent.VK_SHIFT) {
-			shiftKeyPressed = true;
-			
-		}if(code == KeyEvent.VK_SPACE) {
-			spacePressed = true;
-			
-		}if(code == KeyEvent.VK_ESCAPE) {
-			escPressed = true;
-			
-		}if(code == KeyEvent.VK_L) {
-			lPressed = true;
-			
-		}
-		
 	}
 
 	@Override
 	public void keyReleased(KeyEvent egit) {
-		int code = egit.getKeyCode();
-		
-		if(code == KeyEvent.VK_W || code == KeyEvent.VK_UP) {
-			upPressed = false;
-			
-			
-		}
-		if(code == KeyEvent.VK_S || code == KeyEvent.VK_DOWN) {
-			downPressed = false;
-			
-		}
-		if(code == KeyEvent.VK_A) {
-			leftPressed = false; 
-			
+		int key = keyFor(egit.getKeyCode());
+		if (key != 0 && events != null) {
+			events.offer(InputEventQueue.KEY_UP, key, 0, 0);
 		}
-		if(code == KeyEvent.VK_D) {
-			rightPressed = false;
-			
-		}if(code == KeyEvent.VK_SHIFT) {
-			shiftKeyPressed = false;
-			
-		}if(code == KeyEvent.VK_SPACE) {
-			spacePressed = false;
-			
-		}if(code == KeyEvent.VK_ESCAPE) {
-			escPressed = false;
-			
-		}if(code == KeyEvent.VK_L) {
-			lPressed = false;
-			
+	}
+
+	// Which game key a keyboard key is (0 = none)
+	private static int keyFor(int code) {
+		if(code == KeyEvent.VK_W || code == KeyEvent.VK_UP) return InputFrame.KEY_UP;
+		if(code == KeyEvent.VK_S || code == KeyEvent.VK_DOWN) return InputFrame.KEY_DOWN;
+		if(code == KeyEvent.VK_A) return InputFrame.KEY_LEFT;
+		if(code == KeyEvent.VK_D) return InputFrame.KEY_RIGHT;
+		if(code == KeyEvent.VK_SHIFT) return InputFrame.KEY_SHIFT;
+		if(code == KeyEvent.VK_SPACE) return InputFrame.KEY_SPACE;
+		if(code == KeyEvent.VK_ESCAPE) return InputFrame.KEY_ESC;
+		if(code == KeyEvent.VK_L) return InputFrame.KEY_L;
+		if(code == KeyEvent.VK_F3) return InputFrame.KEY_F3;
+		return 0;
+	}
+
+	// ========================================
+	// GAME THREAD
+	// ========================================
+	/**
+	 * Press or release a game key
+	 * Only a key going from up to down counts as a press, so the OS's
+	 * autorepeat while a key is held doesn't press it again
+	 *
+	 * @param key InputFrame.KEY_* bit
+	 */
+	public void applyKey(int key, boolean down) {
+		int held = getHeldKeys();
+		if (down && (held & key) == 0) {
+			pressedKeys |= key;
 		}
-		
-		
-	
+		setHeldKeys(down ? held | key : held & ~key);
+	}
+
+	/**
+	 * @return the keys currently down, as InputFrame.KEY_* bits
+	 */
+	public int getHeldKeys() {
+		return (upPressed ? InputFrame.KEY_UP : 0)
+				| (downPressed ? InputFrame.KEY_DOWN : 0)
+				| (leftPressed ? InputFrame.KEY_LEFT : 0)
+				| (rightPressed ? InputFrame.KEY_RIGHT : 0)
+				| (shiftKeyPressed ? InputFrame.KEY_SHIFT : 0)
+				| (spacePressed ? InputFrame.KEY_SPACE : 0)
+				| (escPressed ? InputFrame.KEY_ESC : 0)
+				| (wPressed ? InputFrame.KEY_W : 0)
+				| (sPressed ? InputFrame.KEY_S : 0)
+				| (lPressed ? InputFrame.KEY_L : 0)
+				| (f3Pressed ? InputFrame.KEY_F3 : 0);
 	}
-	 
+
+	/**
+	 * Set which keys are down
+	 *
+	 * @param keys InputFrame.KEY_* bits
+	 */
+	public void setHeldKeys(int keys) {
+		upPressed = (keys & InputFrame.KEY_UP) != 0;
+		downPressed = (keys & InputFrame.KEY_DOWN) != 0;
+		leftPressed = (keys & InputFrame.KEY_LEFT) != 0;
+		rightPressed = (keys & InputFrame.KEY_RIGHT) != 0;
+		shiftKeyPressed = (keys & InputFrame.KEY_SHIFT) != 0;
+		spacePressed = (keys & InputFrame.KEY_SPACE) != 0;
+		escPressed = (keys & InputFrame.KEY_ESC) != 0;
+		wPressed = (keys & InputFrame.KEY_W) != 0;
+		sPressed = (keys & InputFrame.KEY_S) != 0;
+		lPressed = (keys & InputFrame.KEY_L) != 0;
+		f3Pressed = (keys & InputFrame.KEY_F3) != 0;
+	}
+
+	/**
+	 * Take the keys pressed since the last call
+	 */
+	public int takePressedKeys() {
+		int keys = pressedKeys;
+		pressedKeys = 0;
+		return keys;
+	}
+
 }
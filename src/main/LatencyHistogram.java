@@ -0,0 +1,99 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram - Fixed-size log-linear histogram of durations in nanoseconds
+ * Every power of two is split into 32 buckets, so any percentile is off by
+ * at most ~3%, and recording is a couple of shifts and one array write.
+ * Nothing is allocated after construction.
+ *
+ * One thread records; any thread may read. Reads see a close to current
+ * view without stopping the writer.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 5;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int MAX_EXPONENT = 40; // Values up to ~18 minutes
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+	private final String name;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private volatile long count = 0;
+	private volatile long max = 0;
+	private volatile long total = 0;
+
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Record one duration (single writer only)
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+		int bucket = bucketOf(nanos);
+		counts.lazySet(bucket, counts.get(bucket) + 1);
+		total += nanos;
+		if (nanos > max) max = nanos;
+		count++;
+	}
+
+	public long getCount() { return count; }
+	public long getMax() { return max; }
+	public long getMean() { long c = count; return c == 0 ? 0 : total / c; }
+
+	/**
+	 * Smallest recorded duration that at least p percent of samples are at or below
+	 * (reported as the top of its bucket, never above the max)
+	 *
+	 * @param percentile 0..100
+	 */
+	public long getPercentile(double percentile) {
+		long n = count;
+		if (n == 0) return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+		long seen = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += counts.get(b);
+			if (seen >= rank) {
+				return Math.min(upperBound(b), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Forget every sample (not safe while the writer is recording)
+	 */
+	public void reset() {
+		for (int b = 0; b < BUCKETS; b++) {
+			counts.set(b, 0);
+		}
+		count = 0;
+		max = 0;
+		total = 0;
+	}
+
+	// Below SUB_COUNT every value has its own bucket; above it, the top
+	// SUB_BITS + 1 bits pick the bucket within the value's power of two
+	private static int bucketOf(long v) {
+		if (v < SUB_COUNT) return (int) v;
+		int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+		if (shift > MAX_EXPONENT - SUB_BITS) return BUCKETS - 1;
+		int mantissa = (int) (v >>> shift); // SUB_COUNT .. 2 * SUB_COUNT - 1
+		return (shift + 1) * SUB_COUNT + (mantissa - SUB_COUNT);
+	}
+
+	private static long upperBound(int bucket) {
+		if (bucket < SUB_COUNT) return bucket;
+		int shift = bucket / SUB_COUNT - 1;
+		long mantissa = SUB_COUNT + bucket % SUB_COUNT;
+		return ((mantissa + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,134 @@
+package main;
+
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * MixerOutput - Feeds AudioSources (a SoftwareMixer, a MusicPlayer) to one SourceDataLine
+ * A high-priority thread mixes a period (a quarter of the line's buffer)
+ * at a time, sums the sources and writes it out; write() blocks until the
+ * line has room, which paces the thread to the sound card.
+ *
+ * The buffer size sets the latency (-Dcatcher.mixerBufferFrames=..., 1024
+ * frames is about 23 ms at 44.1 kHz). Smaller is snappier but underruns
+ * (the line playing out everything it had) become likelier.
+ */
+public final class MixerOutput implements Runnable {
+
+	private final String name;
+	private final AudioSource[] sources;
+	private final int bufferFrames;
+	private SourceDataLine line;
+	private Thread thread;
+	private volatile boolean running = false;
+
+	// Stats (written by the output thread; totals over every line opened)
+	private volatile long framesWritten = 0;
+	private volatile long underruns = 0;
+	private volatile long latencyNanos = 0;
+	private volatile long maxLatencyNanos = 0;
+
+	/**
+	 * @param name Names the thread and the log lines
+	 */
+	public MixerOutput(String name, int bufferFrames, AudioSource... sources) {
+		this.name = name;
+		this.sources = sources;
+		this.bufferFrames = Math.max(64, bufferFrames);
+	}
+
+	/**
+	 * Open the line and start the output thread
+	 *
+	 * @return false if there is no line to play on
+	 */
+	public boolean start() {
+		if (running) {
+			return true;
+		}
+		try {
+			int frameSize = SoftwareMixer.FORMAT.getFrameSize();
+			line = AudioSystem.getSourceDataLine(SoftwareMixer.FORMAT);
+			line.open(SoftwareMixer.FORMAT, bufferFrames * frameSize);
+		} catch (LineUnavailableException | IllegalArgumentException e) {
+			System.out.println("No audio line for " + name + ": " + e.getMessage());
+			line = null;
+			return false;
+		}
+		line.start();
+		latencyNanos = 0;
+		running = true;
+		thread = new Thread(this, name);
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+		System.out.println("Audio output " + name + ": " + line.getBufferSize() / SoftwareMixer.FORMAT.getFrameSize()
+				+ " frame buffer");
+		return true;
+	}
+
+	@Override
+	public void run() {
+		int frameSize = SoftwareMixer.FORMAT.getFrameSize();
+		int period = Math.max(16, line.getBufferSize() / frameSize / 4);
+		short[] samples = new short[period * SoftwareMixer.CHANNELS];
+		short[] more = new short[samples.length];
+		byte[] bytes = new byte[period * frameSize];
+		double nanosPerFrame = 1e9 / SoftwareMixer.FORMAT.getFrameRate();
+		long lineFrames = 0; // Written to this line (its frame position starts at 0 too)
+
+		while (running) {
+			// An empty line before a write means it ran dry since the last one
+			if (lineFrames > 0 && line.available() >= line.getBufferSize()) {
+				underruns++;
+			}
+
+			sources[0].mix(samples, period);
+			for (int s = 1; s < sources.length; s++) {
+				sources[s].mix(more, period);
+				for (int i = 0; i < samples.length; i++) {
+					samples[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, samples[i] + more[i]));
+				}
+			}
+			for (int i = 0, b = 0; i < samples.length; i++) {
+				bytes[b++] = (byte) samples[i];
+				bytes[b++] = (byte) (samples[i] >> 8);
+			}
+			line.write(bytes, 0, bytes.length);
+			lineFrames += period;
+			framesWritten += period;
+
+			// Everything written but not played yet is what a new sound waits behind
+			long queued = lineFrames - line.getLongFramePosition();
+			latencyNanos = (long) (Math.max(0, queued) * nanosPerFrame);
+			if (latencyNanos > maxLatencyNanos) {
+				maxLatencyNanos = latencyNanos;
+			}
+		}
+	}
+
+	/**
+	 * Stop the output thread and close the line
+	 */
+	public void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		try {
+			thread.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		line.stop();
+		line.close();
+		line = null;
+	}
+
+	public boolean isRunning() { return running; }
+	public long getFramesWritten() { return framesWritten; }
+	public long getUnderruns() { return underruns; }
+	public long getLatencyNanos() { return latencyNanos; }
+	public long getMaxLatencyNanos() { return maxLatencyNanos; }
+}
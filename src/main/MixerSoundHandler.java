@@ -0,0 +1,296 @@
+package main;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MixerSoundHandler - SoundHandler that mixes in software onto one line
+ * Instead of a clip per sound, every sound is decoded into the mixer's
+ * format when loaded and played as a voice of a SoftwareMixer, which a
+ * MixerOutput thread writes to a single SourceDataLine. Playing a sound
+ * only queues a command, and a burst of sounds can't run the sound card
+ * out of lines. Music streams through the base class's MusicPlayer,
+ * summed onto the same line.
+ *
+ * Chosen with -Dcatcher.audio=mixer. The mixer has one voice per sound
+ * in the voice budget (-Dcatcher.voiceBudget=...), and the line buffer
+ * sets the latency (-Dcatcher.mixerBufferFrames=..., default 1024).
+ */
+public class MixerSoundHandler extends SoundHandler {
+
+	private final SoftwareMixer mixer = new SoftwareMixer(voiceBudget, 256);
+	private final MixerOutput output = new MixerOutput("mixer-output",
+			Integer.getInteger("catcher.mixerBufferFrames", 1024), mixer, musicPlayer);
+	private boolean outputTried = false;
+
+	// Sound name -> mixer id, and the files behind them
+	private final Map<String, Integer> soundIds = new HashMap<>();
+	private final Map<String, String> soundPaths = new HashMap<>();
+	// Mixer ids by file, so loading a file again doesn't register it twice
+	private final Map<String, Integer> fileIds = new HashMap<>();
+
+	private float masterVolume = 0.8f;
+	private long playsWithoutOutput = 0;
+
+	@Override
+	public void loadSound(String soundName, String filePath, int priority, int maxVoices) {
+		if (!new File(filePath).exists()) {
+			System.out.println("Sound file not found: " + filePath);
+			return;
+		}
+		soundPaths.put(soundName, filePath);
+		int id = register(soundName, filePath, priority, maxVoices);
+		if (id >= 0) {
+			soundIds.put(soundName, id);
+			System.out.println("Sound loaded: " + soundName + " from " + filePath + " (mixer)");
+		}
+	}
+
+	@Override
+	public void loadMusic(String soundName, String filePath) {
+		if (!new File(filePath).exists()) {
+			System.out.println("Sound file not found: " + filePath);
+			return;
+		}
+		// Streamed when looped
+		soundPaths.put(soundName, filePath);
+		musicTracks.put(soundName, musicPlayer.addTrack(filePath));
+		System.out.println("Music loaded: " + soundName + " from " + filePath);
+	}
+
+	// The music plays on this handler's line rather than one of its own
+	@Override
+	protected boolean startMusicOutput() {
+		startOutput();
+		return output.isRunning();
+	}
+
+	@Override
+	protected void stopMusicOutput() {
+		musicPlayer.stop();
+	}
+
+	// Decode a file into the mixer (once per file); -1 if that fails
+	private int register(String soundName, String filePath, int priority, int maxVoices) {
+		Integer known = fileIds.get(filePath);
+		if (known != null) {
+			return known;
+		}
+		startOutput();
+		try {
+			short[] samples = SoftwareMixer.toMixFormat(PcmSound.decode(filePath));
+			if (samples == null) {
+				System.out.println("Error loading sound '" + soundName + "': unsupported sample size");
+				return -1;
+			}
+			int id = mixer.register(samples, priority, maxVoices);
+			if (id < 0) {
+				System.out.println("Error loading sound '" + soundName + "': mixer is full");
+				return -1;
+			}
+			fileIds.put(filePath, id);
+			return id;
+		} catch (Exception e) {
+			System.out.println("Error loading sound '" + soundName + "': " + e.getMessage());
+			return -1;
+		}
+	}
+
+	private void startOutput() {
+		if (!outputTried) {
+			outputTried = true;
+			mixer.setMasterGain(masterVolume);
+			musicPlayer.setGain(masterVolume);
+			output.start();
+		}
+	}
+
+	@Override
+	public void playSound(String soundName) {
+		playSound(soundName, 1.0f);
+	}
+
+	/**
+	 * Play a sound effect once at its own volume
+	 *
+	 * @param gain Volume of this voice (1.0 = as recorded, at most SoftwareMixer.MAX_GAIN), before the master volume
+	 */
+	public void playSound(String soundName, float gain) {
+		GameEvents.Sound event = GameEvents.Sound.start();
+		Integer id = soundIds.get(soundName);
+		if (id == null) {
+			if (!soundPaths.containsKey(soundName)) {
+				System.out.println("Sound not found: " + soundName);
+			}
+			return;
+		}
+		if (!output.isRunning()) {
+			playsWithoutOutput++;
+			return;
+		}
+		mixer.play(id, gain);
+		musicPlayer.duck();
+		if (event != null && event.shouldCommit()) {
+			event.name = soundName;
+			event.looped = false;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void loopSound(String soundName) {
+		if (musicTracks.containsKey(soundName)) {
+			super.loopSound(soundName);
+			return;
+		}
+		GameEvents.Sound event = GameEvents.Sound.start();
+		String filePath = soundPaths.get(soundName);
+		if (filePath == null) {
+			System.out.println("Sound not found: " + soundName);
+			return;
+		}
+		Integer id = soundIds.get(soundName);
+		if (id == null) {
+			int registered = register(soundName, filePath, PRIORITY_NORMAL, 1);
+			if (registered < 0) {
+				return;
+			}
+			id = registered;
+			soundIds.put(soundName, id);
+		}
+		if (!output.isRunning()) {
+			playsWithoutOutput++;
+			return;
+		}
+		// Restart the loop from the top, like a fresh clip would
+		mixer.stop(id);
+		mixer.loop(id, 1.0f);
+		if (event != null && event.shouldCommit()) {
+			event.name = soundName;
+			event.looped = true;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void stopSound(String soundName) {
+		Integer track = musicTracks.get(soundName);
+		if (track != null) {
+			musicPlayer.stop(track);
+			return;
+		}
+		Integer id = soundIds.get(soundName);
+		if (id != null) {
+			mixer.stop(id);
+		}
+	}
+
+	@Override
+	public void stopAllSounds() {
+		mixer.stopAll();
+		musicPlayer.stop();
+	}
+
+	/**
+	 * Pause a sound where it is; resumeSound carries on from that exact frame
+	 */
+	@Override
+	public void pauseSound(String soundName) {
+		if (musicTracks.containsKey(soundName)) {
+			super.pauseSound(soundName);
+			return;
+		}
+		Integer id = soundIds.get(soundName);
+		if (id != null) {
+			mixer.pause(id);
+		}
+	}
+
+	@Override
+	public void resumeSound(String soundName) {
+		if (musicTracks.containsKey(soundName)) {
+			super.resumeSound(soundName);
+			return;
+		}
+		Integer id = soundIds.get(soundName);
+		if (id != null) {
+			mixer.resume(id);
+		}
+	}
+
+	@Override
+	public void setMasterVolume(float volume) {
+		masterVolume = Math.max(0.0f, Math.min(1.0f, volume));
+		mixer.setMasterGain(masterVolume);
+		musicPlayer.setGain(masterVolume);
+	}
+
+	@Override
+	public float getMasterVolume() {
+		return masterVolume;
+	}
+
+	@Override
+	public boolean isSoundLoaded(String soundName) {
+		return soundPaths.containsKey(soundName);
+	}
+
+	@Override
+	public boolean isSoundPlaying(String soundName) {
+		if (musicTracks.containsKey(soundName)) {
+			return super.isSoundPlaying(soundName);
+		}
+		Integer id = soundIds.get(soundName);
+		return id != null && mixer.isPlaying(id);
+	}
+
+	/**
+	 * Forget a sound's name (its decoded data stays in the mixer, so
+	 * loading the same file again is free)
+	 */
+	@Override
+	public void unloadSound(String soundName) {
+		stopSound(soundName);
+		soundIds.remove(soundName);
+		soundPaths.remove(soundName);
+		musicTracks.remove(soundName);
+	}
+
+	/**
+	 * Stop everything and close the line
+	 */
+	@Override
+	public void unloadAllSounds() {
+		mixer.stopAll();
+		musicPlayer.stop();
+		output.stop();
+		outputTried = false;
+		soundIds.clear();
+		soundPaths.clear();
+		musicTracks.clear();
+		musicPlayer.closePreloaded();
+	}
+
+	@Override
+	public String getStatsSummary() {
+		return String.format("audio mixer: voices %d/%d  restarts %d  steals %d  rejects %d  dropped cmds %d  latency %.1f ms (max %.1f)  underruns %d",
+				mixer.getActiveVoices(), mixer.getMaxVoices(), mixer.getCopyRestarts(), mixer.getVoiceSteals(), mixer.getVoiceRejects(),
+				mixer.getDroppedCommands(),
+				output.getLatencyNanos() / 1e6, output.getMaxLatencyNanos() / 1e6, output.getUnderruns());
+	}
+
+	// ===== MIXER STATS =====
+
+	@Override
+	public long getVoiceSteals() { return mixer.getVoiceSteals(); }
+	@Override
+	public long getCopyRestarts() { return mixer.getCopyRestarts(); }
+	@Override
+	public long getVoiceRejects() { return mixer.getVoiceRejects(); }
+
+	public SoftwareMixer getMixer() { return mixer; }
+	public MixerOutput getOutput() { return output; }
+	/** @return plays dropped because no line could be opened */
+	public long getPlaysWithoutOutput() { return playsWithoutOutput; }
+}
@@ -6,48 +6,51 @@ import java.awt.event.MouseMotionListener;
 
 public class MouseHandler implements MouseListener, MouseMotionListener {
 	
+	// Mouse state, owned by the game thread. The listener methods below run
+	// on the EDT and only queue events; InputEventQueue.drain() applies them
+	
 	// Mouse position
 	public int mouseX = 0;
 	public int mouseY = 0;
 	
 	// Mouse button states
-	public boolean leftClicked = false;
+	public boolean leftClicked = false; // Pressed since the last input frame
 	public boolean leftPressed = false;
-	public boolean rightClicked = false;
+	public boolean rightClicked = false; // Pressed since the last input frame
+	
+	private final InputEventQueue events;
+	
+	/**
+	 * @param events Queue the listener methods post to (null = not listening)
+	 */
+	public MouseHandler(InputEventQueue events) {
+		this.events = events;
+	}
 	
 	@Override
 	public void mousePressed(MouseEvent e) {
-		if (e.getButton() == MouseEvent.BUTTON1) {
-			leftPressed = true;
-			leftClicked = true;
-		} else if (e.getButton() == MouseEvent.BUTTON3) {
-			rightClicked = true;
-		}
-		
-		mouseX = e.getX();
-		mouseY = e.getY();
+		post(InputEventQueue.MOUSE_DOWN, e);
 	}
 
 	@Override
 	public void mouseReleased(MouseEvent e) {
-		if (e.getButton() == MouseEvent.BUTTON1) {
-			leftPressed = false;
-		}
-		
-		mouseX = e.getX();
-		mouseY = e.getY();
+		post(InputEventQueue.MOUSE_UP, e);
 	}
 
 	@Override
 	public void mouseMoved(MouseEvent e) {
-		mouseX = e.getX();
-		mouseY = e.getY();
+		post(InputEventQueue.MOUSE_MOVE, e);
 	}
 
 	@Override
 	public void mouseDragged(MouseEvent e) {
-		mouseX = e.getX();
-		mouseY = e.getY();
+		post(InputEventQueue.MOUSE_MOVE, e);
+	}
+	
+	private void post(int kind, MouseEvent e) {
+		if (events != null) {
+			events.offer(kind, e.getButton(), e.getX(), e.getY());
+		}
 	}
 
 	@Override
@@ -76,9 +79,26 @@ public class MouseHandler implements MouseListener, MouseMotionListener {
 	}
 	
 	// ========================================
-	// RESET CLICK - Reset the click flag after use
+	// APPLY BUTTON - Press or release a button (game thread)
+	// @param button - MouseEvent.BUTTON1 / BUTTON3
+	// ========================================
+	public void applyButton(int button, boolean down, int x, int y) {
+		if (button == MouseEvent.BUTTON1) {
+			leftPressed = down;
+			if (down) leftClicked = true;
+		} else if (button == MouseEvent.BUTTON3 && down) {
+			rightClicked = true;
+		}
+		
+		mouseX = x;
+		mouseY = y;
+	}
+	
+	// ========================================
+	// APPLY MOVE - Mouse moved or dragged (game thread)
 	// ========================================
-	public void resetClick() {
-		leftClicked = false;
+	public void applyMove(int x, int y) {
+		mouseX = x;
+		mouseY = y;
 	}
 }
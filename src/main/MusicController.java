@@ -0,0 +1,73 @@
+package main;
+
+import entity.sounds;
+
+/**
+ * MusicController - Which music should be playing
+ * GameplayManager asks for the track of the current state (and pauses or
+ * resumes it) every tick; only changes are passed on, as crossfade,
+ * pause and resume requests through entity.sounds. The fading itself
+ * happens on the audio side (see MusicPlayer).
+ */
+public final class MusicController {
+
+	private final sounds gameSound;
+	private String track; // Last track asked for (null = none yet, or restart it)
+	private boolean paused = false;
+
+	public MusicController(sounds gameSound) {
+		this.gameSound = gameSound;
+	}
+
+	/**
+	 * Fade to a track unless it is already the one playing
+	 *
+	 * @param musicName One of the sounds.*_MUSIC names
+	 * @return true if this started the track
+	 */
+	public boolean play(String musicName) {
+		if (musicName.equals(track)) {
+			return false;
+		}
+		track = musicName;
+		paused = false;
+		gameSound.fadeToMusic(musicName);
+		return true;
+	}
+
+	/**
+	 * Pause the current track where it is
+	 */
+	public void pause() {
+		if (!paused && track != null) {
+			paused = true;
+			gameSound.pauseMusic(track);
+		}
+	}
+
+	/**
+	 * Carry on from where pause() stopped
+	 */
+	public void resume() {
+		if (paused) {
+			paused = false;
+			gameSound.resumeMusic(track);
+		}
+	}
+
+	/**
+	 * Forget the current track, so the next play() starts it from the top
+	 * even if it is the same one
+	 */
+	public void restart() {
+		track = null;
+		paused = false;
+	}
+
+	/**
+	 * @return the last track asked for, or null
+	 */
+	public String getTrack() {
+		return track;
+	}
+}
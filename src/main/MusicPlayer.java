@@ -0,0 +1,357 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * MusicPlayer - Streams looping music tracks as an AudioSource
+ * Tracks are registered up front (just their paths). Every track keeps a
+ * stream opened and waiting at its first frame (preloaded), so switching
+ * tracks only hands that stream to the output thread and queues a command
+ * on a CommandQueue; the output thread never opens a file. The caller
+ * opens the replacement preload afterwards, off the output thread, and
+ * prepareLoops() (once a tick) opens the copy each playing stream
+ * switches to when its track loops.
+ *
+ *  - Switching can cut, or crossfade (equal power) over a number of frames
+ *  - duck() lowers the music for a moment, e.g. under a sound effect
+ *    (-Dcatcher.musicDuck=0.5 level, -Dcatcher.musicDuckMillis=300 hold)
+ *  - Pausing stops reading the streams, so resuming carries on from the
+ *    exact frame it stopped at
+ */
+public final class MusicPlayer implements AudioSource {
+
+	private static final int CMD_PLAY = 1;
+	private static final int CMD_STOP = 2;
+	private static final int CMD_PAUSE = 3;
+	private static final int CMD_RESUME = 4;
+	private static final int CMD_GAIN = 5;
+	private static final int CMD_DUCK = 6;
+
+	private static final int ANY_TRACK = 0xFFFFFF;
+
+	// Ducking: level under effects, how long it holds, how fast it moves
+	private static final float DUCK_LEVEL = Math.max(0f, Math.min(1f,
+			Float.parseFloat(System.getProperty("catcher.musicDuck", "0.5"))));
+	private static final int DUCK_HOLD_FRAMES = framesOf(Integer.getInteger("catcher.musicDuckMillis", 300));
+	private static final float DUCK_STEP = 1f / framesOf(50);
+
+	// Registered tracks, published copy-on-write
+	private volatile String[] tracks = new String[0];
+	private final int chunkFrames;
+
+	// Streams waiting at their first frame (callers only), and streams
+	// handed to the output thread along with a play command
+	private MusicStream[] preloaded = new MusicStream[0];
+	private volatile AtomicReferenceArray<MusicStream> handoff = new AtomicReferenceArray<>(0);
+	private final java.util.ArrayList<MusicStream> handedOut = new java.util.ArrayList<>(); // Until closed
+
+	private final CommandQueue commands = new CommandQueue(64);
+	private final long[] drained = new long[commands.capacity()];
+
+	// Output thread only
+	private MusicStream stream;
+	private MusicStream outgoing; // Fading out under stream
+	private int fadeFrames = 1;
+	private int fadePosition = 0;
+	private float gain = 1f;
+	private float duck = 1f;
+	private int duckHold = 0;
+	private short[] fadeScratch = new short[0];
+
+	// What's playing, for any thread to look at
+	private volatile int currentTrack = -1;
+	private volatile boolean paused = false;
+	private final AtomicLong streamErrors = new AtomicLong(); // Counted by callers and the output thread
+
+	/**
+	 * @param chunkFrames Frames decoded per file read
+	 */
+	public MusicPlayer(int chunkFrames) {
+		this.chunkFrames = chunkFrames;
+	}
+
+	/**
+	 * @return how many frames of output a duration is
+	 */
+	public static int framesOf(int millis) {
+		return Math.max(1, (int) (SoftwareMixer.FORMAT.getFrameRate() * millis / 1000));
+	}
+
+	// ========================================
+	// CALLERS (may open files)
+	// ========================================
+	/**
+	 * Register a track and preload it
+	 *
+	 * @return the track's id
+	 */
+	public synchronized int addTrack(String path) {
+		String[] current = tracks;
+		int track = current.length;
+		AtomicReferenceArray<MusicStream> grownHandoff = new AtomicReferenceArray<>(track + 1);
+		for (int i = 0; i < track; i++) {
+			grownHandoff.set(i, handoff.get(i));
+		}
+		preloaded = java.util.Arrays.copyOf(preloaded, track + 1);
+		handoff = grownHandoff;
+		String[] grown = java.util.Arrays.copyOf(current, track + 1);
+		grown[track] = path;
+		tracks = grown;
+		preload(track);
+		return track;
+	}
+
+	/** Start a track from the top, cutting off whatever is playing */
+	public boolean play(int track) { return start(track, 0); }
+
+	/**
+	 * Start a track from the top, fading it in while the current one fades out
+	 */
+	public boolean crossfade(int track, int frames) { return start(track, frames); }
+
+	private synchronized boolean start(int track, int frames) {
+		if (track < 0 || track >= tracks.length) {
+			return false;
+		}
+		MusicStream ready = preloaded[track];
+		preloaded[track] = null;
+		if (ready == null) {
+			ready = open(track); // Preload failed earlier; try once more
+			if (ready == null) {
+				return false;
+			}
+		}
+		MusicStream replaced = handoff.getAndSet(track, ready);
+		if (replaced != null) {
+			replaced.close(); // An earlier play of this track the output never took
+		}
+		handedOut.add(ready);
+		boolean sent = send(CMD_PLAY, track, frames);
+		preload(track);
+		return sent;
+	}
+
+	private void preload(int track) {
+		if (preloaded[track] == null) {
+			preloaded[track] = open(track);
+		}
+	}
+
+	private MusicStream open(int track) {
+		String path = tracks[track];
+		try {
+			return new MusicStream(path, chunkFrames);
+		} catch (Exception e) {
+			System.out.println("Error opening music '" + path + "': " + e.getMessage());
+			streamErrors.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Open the next loop of every stream the output thread has, and close
+	 * the loops they finished (call regularly, off the output thread)
+	 */
+	public synchronized void prepareLoops() {
+		for (int i = handedOut.size() - 1; i >= 0; i--) {
+			MusicStream playing = handedOut.get(i);
+			try {
+				playing.prepareLoop();
+				if (playing.isClosed()) {
+					handedOut.remove(i);
+				}
+			} catch (Exception e) {
+				// Give up on looping it; it plays silence at its end
+				System.out.println("Error opening music '" + playing.path + "': " + e.getMessage());
+				streamErrors.incrementAndGet();
+				handedOut.remove(i);
+			}
+		}
+	}
+
+	/**
+	 * Close the preloaded streams (tracks reopen when next played)
+	 */
+	public synchronized void closePreloaded() {
+		for (int i = 0; i < preloaded.length; i++) {
+			if (preloaded[i] != null) {
+				preloaded[i].close();
+				preloaded[i] = null;
+			}
+		}
+	}
+
+	// ========================================
+	// ANY THREAD
+	// ========================================
+	public boolean stop() { return send(CMD_STOP, ANY_TRACK, 0); }
+	/** Stop the track, if it is the one playing */
+	public boolean stop(int track) { return send(CMD_STOP, track, 0); }
+	/** Pause the track, if it is the one playing */
+	public boolean pause(int track) { return send(CMD_PAUSE, track, 0); }
+	public boolean resume(int track) { return send(CMD_RESUME, track, 0); }
+	public boolean setGain(float volume) { return send(CMD_GAIN, 0, Float.floatToIntBits(Math.max(0f, Math.min(1f, volume)))); }
+	/** Lower the music for a moment (again and again while effects keep playing) */
+	public boolean duck() { return send(CMD_DUCK, 0, 0); }
+
+	/**
+	 * @return true if the track is the current one (playing or paused)
+	 */
+	public boolean isCurrent(int track) {
+		return currentTrack == track;
+	}
+
+	/**
+	 * @return true if the track is the current one and isn't paused
+	 */
+	public boolean isPlaying(int track) {
+		return currentTrack == track && !paused;
+	}
+
+	private boolean send(int op, int track, int argument) {
+		return commands.offer(((long) op << 56) | ((long) (track & 0xFFFFFF) << 32) | (argument & 0xFFFFFFFFL));
+	}
+
+	// ========================================
+	// OUTPUT THREAD
+	// ========================================
+	@Override
+	public void mix(short[] out, int frames) {
+		applyCommands();
+		int samples = frames * SoftwareMixer.CHANNELS;
+		if (paused || (stream == null && outgoing == null)) {
+			java.util.Arrays.fill(out, 0, samples, (short) 0);
+			return;
+		}
+		if (!read(stream, out, frames)) {
+			stream = null;
+			currentTrack = -1;
+		}
+		if (outgoing != null) {
+			if (fadeScratch.length < samples) {
+				fadeScratch = new short[samples];
+			}
+			if (!read(outgoing, fadeScratch, frames)) {
+				outgoing = null;
+			}
+		}
+
+		for (int f = 0; f < frames; f++) {
+			// Crossfade: equal power, so the middle isn't quieter than either end
+			float in = 1f;
+			float old = 0f;
+			if (outgoing != null) {
+				float t = fadePosition / (float) fadeFrames;
+				in = (float) Math.sqrt(t);
+				old = (float) Math.sqrt(1f - t);
+				if (++fadePosition >= fadeFrames) {
+					outgoing.close();
+					outgoing = null;
+				}
+			}
+
+			// Ducking: hold the low level while effects play, then ramp back up
+			float target = duckHold > 0 ? DUCK_LEVEL : 1f;
+			if (duckHold > 0) duckHold--;
+			duck = duck < target ? Math.min(target, duck + DUCK_STEP) : Math.max(target, duck - DUCK_STEP);
+
+			float level = gain * duck;
+			for (int c = 0; c < SoftwareMixer.CHANNELS; c++) {
+				int i = f * SoftwareMixer.CHANNELS + c;
+				float mixed = out[i] * in + (old > 0f ? fadeScratch[i] * old : 0f);
+				out[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixed * level));
+			}
+		}
+	}
+
+	// Read a stream (silence for none); false if it failed and was closed
+	private boolean read(MusicStream from, short[] into, int frames) {
+		if (from == null) {
+			java.util.Arrays.fill(into, 0, frames * SoftwareMixer.CHANNELS, (short) 0);
+			return true;
+		}
+		try {
+			from.read(into, frames);
+			return true;
+		} catch (Exception e) {
+			System.out.println("Error streaming music '" + from.path + "': " + e.getMessage());
+			streamErrors.incrementAndGet();
+			from.close();
+			java.util.Arrays.fill(into, 0, frames * SoftwareMixer.CHANNELS, (short) 0);
+			return false;
+		}
+	}
+
+	private void applyCommands() {
+		int n = commands.drain(drained);
+		for (int c = 0; c < n; c++) {
+			long command = drained[c];
+			int op = (int) (command >>> 56);
+			int track = (int) (command >>> 32) & 0xFFFFFF;
+			int argument = (int) command;
+			switch (op) {
+				case CMD_PLAY:
+					begin(track, argument);
+					break;
+				case CMD_STOP:
+					if (track == ANY_TRACK || track == currentTrack) {
+						closeStreams();
+					}
+					break;
+				case CMD_PAUSE:
+				case CMD_RESUME:
+					if (track == currentTrack) {
+						paused = op == CMD_PAUSE;
+					}
+					break;
+				case CMD_GAIN:
+					gain = Float.intBitsToFloat(argument);
+					break;
+				case CMD_DUCK:
+					duckHold = DUCK_HOLD_FRAMES;
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	// Take the handed-over stream and fade (or cut) to it
+	private void begin(int track, int frames) {
+		MusicStream next = handoff.getAndSet(track, null);
+		if (next == null) {
+			return; // Already taken by an earlier command for this track
+		}
+		if (outgoing != null) {
+			outgoing.close(); // Already fading; the newest switch wins
+			outgoing = null;
+		}
+		if (frames > 0 && !paused) {
+			outgoing = stream;
+		} else if (stream != null) {
+			stream.close();
+		}
+		stream = next;
+		fadeFrames = Math.max(1, frames);
+		fadePosition = 0;
+		currentTrack = track;
+		paused = false;
+	}
+
+	private void closeStreams() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+		if (outgoing != null) {
+			outgoing.close();
+			outgoing = null;
+		}
+		currentTrack = -1;
+		paused = false;
+	}
+
+	/** @return tracks that failed to open or to read */
+	public long getStreamErrors() { return streamErrors.get(); }
+}
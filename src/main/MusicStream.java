@@ -0,0 +1,178 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * MusicStream - A music file read a chunk at a time, looping forever
+ * Only one chunk of the file is in memory at once, however long the
+ * track. A second copy of the file is kept open at its first frame (the
+ * spare); at the end of the file read() switches to it and keeps filling
+ * the same read, so the loop point has no gap and the reading thread never
+ * opens a file. prepareLoop(), called off that thread, opens the next spare
+ * and closes the finished copy. If a loop ends before a spare is ready,
+ * read() plays silence until one is (counted by getLoopStalls()).
+ *
+ * The file must be at the mixer's rate; mono is played on both channels.
+ */
+public final class MusicStream {
+
+	public final String path;
+	private final byte[] chunk;
+	private final int chunkFrames;
+	private final int channels;
+	private AudioInputStream in; // Reading thread only
+
+	// Copies of the file for the next loop, and the one it replaced
+	private final AtomicReference<AudioInputStream> spare = new AtomicReference<>();
+	private final AtomicReference<AudioInputStream> spent = new AtomicReference<>();
+	private volatile boolean closed = false;
+
+	private long position = 0; // Frames read since the start of this loop
+	private long loops = 0;
+	private volatile long loopStalls = 0;
+
+	/**
+	 * Open a track for streaming
+	 *
+	 * @param chunkFrames Frames decoded per file read (sets the memory used)
+	 */
+	public MusicStream(String path, int chunkFrames) throws IOException, UnsupportedAudioFileException {
+		this.path = path;
+		this.chunkFrames = Math.max(64, chunkFrames);
+		this.in = open();
+		this.channels = in.getFormat().getChannels();
+		this.chunk = new byte[this.chunkFrames * in.getFormat().getFrameSize()];
+		spare.set(open());
+	}
+
+	/**
+	 * Open the next loop's copy if the last one was used, and close the
+	 * finished copy (call from the thread that owns the stream, not the one reading it)
+	 */
+	public void prepareLoop() throws IOException, UnsupportedAudioFileException {
+		closeQuietly(spent.getAndSet(null));
+		if (closed || spare.get() != null) {
+			return;
+		}
+		AudioInputStream next = open();
+		if (!spare.compareAndSet(null, next)) {
+			closeQuietly(next);
+		} else if (closed) {
+			closeQuietly(spare.getAndSet(null)); // close() ran while this was opening
+		}
+	}
+
+	// Open the file as 16-bit signed little-endian PCM
+	private AudioInputStream open() throws IOException, UnsupportedAudioFileException {
+		AudioInputStream source = AudioSystem.getAudioInputStream(new File(path));
+		AudioFormat format = source.getFormat();
+		if (format.getSampleRate() != SoftwareMixer.FORMAT.getSampleRate()
+				|| format.getChannels() < 1 || format.getChannels() > 2) {
+			source.close();
+			throw new UnsupportedAudioFileException("music must be mono or stereo at "
+					+ SoftwareMixer.FORMAT.getSampleRate() + " Hz: " + format);
+		}
+		AudioFormat pcm = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+		if (format.matches(pcm)) {
+			return source;
+		}
+		if (!AudioSystem.isConversionSupported(pcm, format)) {
+			source.close();
+			throw new UnsupportedAudioFileException("can't convert " + format + " to " + pcm);
+		}
+		return AudioSystem.getAudioInputStream(pcm, source);
+	}
+
+	/**
+	 * Fill out with the next frames (stereo), wrapping to the start at the end
+	 *
+	 * @param out Receives frames * SoftwareMixer.CHANNELS samples
+	 */
+	public void read(short[] out, int frames) throws IOException {
+		int frameSize = channels * 2;
+		int done = 0;
+		boolean wrapped = false;
+		while (done < frames) {
+			int want = Math.min(frames - done, chunkFrames) * frameSize;
+			int got = readFully(want);
+			int gotFrames = got / frameSize;
+			for (int f = 0; f < gotFrames; f++) {
+				int b = f * frameSize;
+				short left = (short) ((chunk[b + 1] << 8) | (chunk[b] & 0xFF));
+				short right = channels == 2 ? (short) ((chunk[b + 3] << 8) | (chunk[b + 2] & 0xFF)) : left;
+				out[(done + f) * 2] = left;
+				out[(done + f) * 2 + 1] = right;
+			}
+			done += gotFrames;
+			position += gotFrames;
+			if (got < want) {
+				// End of the file: carry on from the top in this same read
+				if (wrapped && gotFrames == 0) {
+					java.util.Arrays.fill(out, done * 2, frames * 2, (short) 0); // Empty file
+					return;
+				}
+				AudioInputStream next = spare.getAndSet(null);
+				if (next == null) {
+					loopStalls++;
+					java.util.Arrays.fill(out, done * 2, frames * 2, (short) 0);
+					return;
+				}
+				closeQuietly(spent.getAndSet(in)); // Normally empty: prepareLoop() closed the last one
+				in = next;
+				position = 0;
+				loops++;
+				wrapped = true;
+			}
+		}
+	}
+
+	private int readFully(int length) throws IOException {
+		int total = 0;
+		while (total < length) {
+			int n = in.read(chunk, total, length - total);
+			if (n < 0) {
+				break;
+			}
+			total += n;
+		}
+		return total;
+	}
+
+	/**
+	 * Close every copy of the file (on the reading thread, or once it is done reading)
+	 */
+	public void close() {
+		closed = true;
+		closeQuietly(in);
+		closeQuietly(spare.getAndSet(null));
+		closeQuietly(spent.getAndSet(null));
+	}
+
+	/** @return true once close() has been called */
+	public boolean isClosed() { return closed; }
+
+	private static void closeQuietly(AudioInputStream stream) {
+		if (stream == null) {
+			return;
+		}
+		try {
+			stream.close();
+		} catch (IOException e) {
+			// Nothing left to do with it
+		}
+	}
+
+	/** @return frames into the current loop */
+	public long getPosition() { return position; }
+	/** @return times the track wrapped around */
+	public long getLoops() { return loops; }
+	/** @return loop ends that found no spare ready and played silence */
+	public long getLoopStalls() { return loopStalls; }
+}
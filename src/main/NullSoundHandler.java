@@ -0,0 +1,121 @@
+package main;
+
+/**
+ * NullSoundHandler - Audio sink that plays nothing
+ * Accepts every AudioBackend call without touching Java Sound, so the game
+ * can run on machines with no audio device. Counts what would have played.
+ */
+public class NullSoundHandler implements AudioBackend {
+
+	private long playCount = 0;
+	private long loopCount = 0;
+	private float masterVolume = 0.8f;
+
+	@Override
+	public void loadSound(String soundName, String filePath) {
+		// Nothing to load
+	}
+
+	@Override
+	public void loadSound(String soundName, String filePath, int priority, int maxVoices) {
+		// Nothing to load
+	}
+
+	@Override
+	public void loadMusic(String soundName, String filePath) {
+		// Nothing to load
+	}
+
+	@Override
+	public void playSound(String soundName) {
+		playCount++;
+	}
+
+	@Override
+	public void loopSound(String soundName) {
+		loopCount++;
+	}
+
+	@Override
+	public void crossfadeMusic(String soundName) {
+		loopCount++;
+	}
+
+	@Override
+	public void stopSound(String soundName) {
+	}
+
+	@Override
+	public void stopAllSounds() {
+	}
+
+	@Override
+	public void pauseSound(String soundName) {
+	}
+
+	@Override
+	public void resumeSound(String soundName) {
+	}
+
+	@Override
+	public void setMasterVolume(float volume) {
+		masterVolume = Math.max(0.0f, Math.min(1.0f, volume));
+	}
+
+	@Override
+	public float getMasterVolume() {
+		return masterVolume;
+	}
+
+	@Override
+	public boolean isSoundLoaded(String soundName) {
+		return false;
+	}
+
+	@Override
+	public boolean isSoundPlaying(String soundName) {
+		return false;
+	}
+
+	@Override
+	public void unloadSound(String soundName) {
+	}
+
+	@Override
+	public void unloadAllSounds() {
+	}
+
+	@Override
+	public long getVoiceSteals() {
+		return 0;
+	}
+
+	@Override
+	public long getCopyRestarts() {
+		return 0;
+	}
+
+	@Override
+	public long getVoiceRejects() {
+		return 0;
+	}
+
+	@Override
+	public String getStatsSummary() {
+		return String.format("audio off: %d plays  %d loops", playCount, loopCount);
+	}
+
+	/**
+	 * @return number of one-shot sounds that would have played
+	 */
+	public long getPlayCount() {
+		return playCount;
+	}
+
+	/**
+	 * @return number of loops (music) that would have started
+	 */
+	public long getLoopCount() {
+		return loopCount;
+	}
+}
@@ -0,0 +1,56 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * PcmSound - A sound file decoded once into signed PCM in memory
+ * Whatever the file's encoding, the data is converted to signed PCM (same
+ * rate, channels and sample size) so clips can be opened straight from
+ * the array and a mixer can sum it without decoding again.
+ */
+public final class PcmSound {
+
+	public final String path;
+	public final AudioFormat format;
+	public final byte[] data;
+	public final int frames;
+
+	private PcmSound(String path, AudioFormat format, byte[] data) {
+		this.path = path;
+		this.format = format;
+		this.data = data;
+		this.frames = data.length / format.getFrameSize();
+	}
+
+	/**
+	 * Read and decode a whole sound file
+	 */
+	public static PcmSound decode(String path) throws IOException, UnsupportedAudioFileException {
+		try (AudioInputStream source = AudioSystem.getAudioInputStream(new File(path))) {
+			AudioFormat format = source.getFormat();
+			AudioInputStream pcm = source;
+			if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+				int bits = format.getSampleSizeInBits() > 8 ? format.getSampleSizeInBits() : 16;
+				AudioFormat signed = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), bits,
+						format.getChannels(), format.getChannels() * bits / 8, format.getSampleRate(), false);
+				pcm = AudioSystem.getAudioInputStream(signed, source);
+			}
+			try (AudioInputStream in = pcm) {
+				return new PcmSound(path, in.getFormat(), in.readAllBytes());
+			}
+		}
+	}
+
+	/**
+	 * @return how long the sound plays, in nanoseconds
+	 */
+	public long lengthNanos() {
+		return (long) (frames / (double) format.getFrameRate() * 1e9);
+	}
+}
@@ -0,0 +1,105 @@
+package main;
+
+import java.util.Arrays;
+
+import entity.FallingEntityStore;
+import entity.Player;
+
+/**
+ * RenderSnapshot - Everything the renderer needs from one simulation tick
+ * Filled by the game thread, then handed to the render thread through a
+ * SnapshotBuffer. Once published a snapshot is never written again until
+ * the renderer has let go of it, so readers can treat it as immutable.
+ */
+public class RenderSnapshot {
+
+	// Tick info
+	public long tick;
+	public long publishTime; // System.nanoTime() when this tick was published
+
+	// Game state
+	public int gameState;
+	public boolean paused;
+	public int highscore;
+
+	// Player
+	public int score;
+	public int lives;
+	public int playerX, playerY;
+	public int playerPrevX, playerPrevY;
+	public String playerDirection;
+	public boolean playerMoving;
+	public boolean playerCatching;
+	public int playerSpriteNum;
+
+	// Falling entities (parallel arrays, first entityCount entries are valid)
+	public int entityCount;
+	public int[] entityX = new int[64];
+	public int[] entityY = new int[64];
+	public int[] entityPrevX = new int[64];
+	public int[] entityPrevY = new int[64];
+	public int[] entityType = new int[64]; // 0=bomb, 1=chicken, 2=fish, ...
+
+	/**
+	 * Copy the current simulation state into this snapshot
+	 * Only allocates when the entity arrays have to grow
+	 */
+	void capture(long tick, GameStateManager stateManager, Player player, FallingEntityStore entities) {
+		this.tick = tick;
+
+		gameState = stateManager.getGameState();
+		paused = stateManager.isPaused();
+		highscore = stateManager.getHighscore();
+
+		score = player.score;
+		lives = player.lives;
+		playerX = player.worldX;
+		playerY = player.worldY;
+		playerPrevX = player.prevWorldX;
+		playerPrevY = player.prevWorldY;
+		playerDirection = player.direction;
+		playerMoving = player.moving;
+		playerCatching = player.isCatching;
+		playerSpriteNum = player.spriteNum;
+
+		// The store is dense, so each column is a single block copy
+		int count = entities.size();
+		ensureCapacity(count);
+		System.arraycopy(entities.x, 0, entityX, 0, count);
+		System.arraycopy(entities.y, 0, entityY, 0, count);
+		System.arraycopy(entities.prevX, 0, entityPrevX, 0, count);
+		System.arraycopy(entities.prevY, 0, entityPrevY, 0, count);
+		System.arraycopy(entities.type, 0, entityType, 0, count);
+		entityCount = count;
+	}
+
+	private void ensureCapacity(int count) {
+		if (count <= entityX.length) return;
+		int capacity = Math.max(count, entityX.length * 2);
+		entityX = Arrays.copyOf(entityX, capacity);
+		entityY = Arrays.copyOf(entityY, capacity);
+		entityPrevX = Arrays.copyOf(entityPrevX, capacity);
+		entityPrevY = Arrays.copyOf(entityPrevY, capacity);
+		entityType = Arrays.copyOf(entityType, capacity);
+	}
+
+	// ========================================
+	// INTERPOLATION HELPERS
+	// @param alpha - 0 = previous tick, 1 = this tick
+	// ========================================
+	public int playerX(float alpha) {
+		return playerPrevX + Math.round((playerX - playerPrevX) * alpha);
+	}
+
+	public int playerY(float alpha) {
+		return playerPrevY + Math.round((playerY - playerPrevY) * alpha);
+	}
+
+	public int entityX(int i, float alpha) {
+		return entityPrevX[i] + Math.round((entityX[i] - entityPrevX[i]) * alpha);
+	}
+
+	public int entityY(int i, float alpha) {
+		return entityPrevY[i] + Math.round((entityY[i] - entityPrevY[i]) * alpha);
+	}
+}
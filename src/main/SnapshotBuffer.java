@@ -0,0 +1,57 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SnapshotBuffer - Lock-free triple buffer of RenderSnapshots
+ * One writer (game thread) and one reader (render thread). The writer always
+ * has a private slot to fill, the reader always has a private slot to draw,
+ * and the third slot is swapped between them with a single atomic exchange.
+ * Neither side ever waits for the other.
+ */
+public class SnapshotBuffer {
+
+	// Low bits of the shared word hold the slot index, this bit marks it as fresh
+	private static final int INDEX_MASK = 0b11;
+	private static final int FRESH = 0b100;
+
+	private final RenderSnapshot[] slots = {
+		new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()
+	};
+
+	private int writeIndex = 0; // Owned by the writer
+	private final AtomicInteger shared = new AtomicInteger(1); // Handed back and forth
+	private int readIndex = 2; // Owned by the reader
+
+	/**
+	 * Writer side: the slot to fill for the next tick
+	 *
+	 * @return a snapshot no reader is looking at
+	 */
+	public RenderSnapshot beginWrite() {
+		return slots[writeIndex];
+	}
+
+	/**
+	 * Writer side: publish the slot returned by beginWrite()
+	 *
+	 * @param publishTime System.nanoTime() the tick was completed
+	 */
+	public void publish(long publishTime) {
+		slots[writeIndex].publishTime = publishTime;
+		writeIndex = shared.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * Reader side: the most recently published snapshot
+	 * Returns the same snapshot again if nothing new was published
+	 *
+	 * @return the latest snapshot, owned by the reader until the next call
+	 */
+	public RenderSnapshot acquireLatest() {
+		if ((shared.get() & FRESH) != 0) {
+			readIndex = shared.getAndSet(readIndex) & INDEX_MASK;
+		}
+		return slots[readIndex];
+	}
+}
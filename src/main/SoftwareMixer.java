@@ -0,0 +1,348 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * SoftwareMixer - Sums the playing sounds into one stereo stream
+ * Sounds are registered once as 16-bit stereo samples. Any thread can then
+ * ask for them to play, loop, stop, pause or resume; the request becomes a
+ * packed command on a lock-free CommandQueue. Only the mixing thread (the
+ * one calling mix()) touches the voices, so mixing takes no locks.
+ *
+ * Each sound has a priority and a most-copies-at-once. A sound at its
+ * limit restarts its own oldest copy; when every voice is busy, a new
+ * sound takes the voice of a sound of no higher priority, the one that is
+ * quietest (gain times what's left of it), or is rejected if there is none.
+ *
+ * The mixer itself has no output: MixerOutput feeds it to a
+ * SourceDataLine (as one of its AudioSources), and anything else that
+ * wants the mixed PCM can call mix() itself.
+ */
+public final class SoftwareMixer implements AudioSource {
+
+	// Output format: 44.1 kHz, 16-bit signed little-endian stereo
+	public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+	public static final int CHANNELS = 2;
+	public static final int MAX_SOUNDS = 64;
+
+	// Command layout: op (8 bits) | sound id (8 bits) | argument (32 bits)
+	private static final int CMD_PLAY = 1;
+	private static final int CMD_LOOP = 2;
+	private static final int CMD_STOP = 3;
+	private static final int CMD_STOP_ALL = 4;
+	private static final int CMD_PAUSE = 5;
+	private static final int CMD_RESUME = 6;
+	private static final int CMD_MASTER_GAIN = 7;
+
+	// Gains are fixed point with this many fraction bits
+	private static final int GAIN_BITS = 12;
+	private static final int UNITY_GAIN = 1 << GAIN_BITS;
+
+	/** Highest voice or master gain; louder requests are played at this */
+	public static final float MAX_GAIN = 4.0f;
+
+	// Registered sounds (interleaved stereo samples), published copy-on-write
+	private volatile short[][] sounds = new short[0][];
+	private final int[] soundPriority = new int[MAX_SOUNDS];
+	private final int[] soundMaxVoices = new int[MAX_SOUNDS];
+
+	// Voices (mixing thread only)
+	private final int[] voiceSound;
+	private final int[] voicePosition; // Next sample index
+	private final int[] voiceGain;
+	private final boolean[] voiceLoop;
+	private final boolean[] voicePaused;
+	private final long[] voiceStarted; // Start order, for stealing the oldest
+	private long startCounter = 0;
+	private int masterGain = UNITY_GAIN;
+
+	private final CommandQueue commands;
+	private final long[] drained;
+	private long[] accumulator = new long[0]; // Wide enough for every voice at MAX_GAIN
+
+	// Stats (written by the mixing thread, read by anyone)
+	private final AtomicIntegerArray playingCounts = new AtomicIntegerArray(MAX_SOUNDS);
+	private volatile int activeVoices = 0;
+	private volatile long voiceSteals = 0;
+	private volatile long copyRestarts = 0;
+	private volatile long voiceRejects = 0;
+
+	/**
+	 * @param maxVoices Most sounds that can play at once (the voice budget)
+	 * @param queueCapacity Commands that can wait between two mix() calls
+	 */
+	public SoftwareMixer(int maxVoices, int queueCapacity) {
+		voiceSound = new int[maxVoices];
+		voicePosition = new int[maxVoices];
+		voiceGain = new int[maxVoices];
+		voiceLoop = new boolean[maxVoices];
+		voicePaused = new boolean[maxVoices];
+		voiceStarted = new long[maxVoices];
+		java.util.Arrays.fill(voiceSound, -1);
+		commands = new CommandQueue(queueCapacity);
+		drained = new long[commands.capacity()];
+	}
+
+	// ========================================
+	// ANY THREAD
+	// ========================================
+	/**
+	 * Register a sound for playing
+	 *
+	 * @param samples Interleaved stereo samples in FORMAT (see toMixFormat)
+	 * @param priority Higher priorities take voices from lower ones
+	 * @param maxVoices Most copies of this sound playing at once
+	 * @return the sound's id, or -1 if MAX_SOUNDS are already registered
+	 */
+	public synchronized int register(short[] samples, int priority, int maxVoices) {
+		short[][] current = sounds;
+		if (current.length == MAX_SOUNDS) {
+			return -1;
+		}
+		soundPriority[current.length] = priority;
+		soundMaxVoices[current.length] = Math.max(1, maxVoices);
+		short[][] grown = java.util.Arrays.copyOf(current, current.length + 1);
+		grown[current.length] = samples;
+		sounds = grown;
+		return current.length;
+	}
+
+	public boolean play(int id, float gain) { return send(CMD_PLAY, id, toFixed(gain)); }
+	public boolean loop(int id, float gain) { return send(CMD_LOOP, id, toFixed(gain)); }
+	public boolean stop(int id) { return send(CMD_STOP, id, 0); }
+	public boolean stopAll() { return send(CMD_STOP_ALL, 0, 0); }
+	public boolean pause(int id) { return send(CMD_PAUSE, id, 0); }
+	public boolean resume(int id) { return send(CMD_RESUME, id, 0); }
+	public boolean setMasterGain(float gain) { return send(CMD_MASTER_GAIN, 0, toFixed(gain)); }
+
+	/**
+	 * @return true if a voice is playing (or paused on) the sound
+	 */
+	public boolean isPlaying(int id) {
+		return id >= 0 && id < MAX_SOUNDS && playingCounts.get(id) > 0;
+	}
+
+	private boolean send(int op, int id, int argument) {
+		return commands.offer(((long) op << 56) | ((long) (id & 0xFF) << 48) | (argument & 0xFFFFFFFFL));
+	}
+
+	private static int toFixed(float gain) {
+		return Math.round(Math.max(0f, Math.min(MAX_GAIN, gain)) * UNITY_GAIN);
+	}
+
+	// ========================================
+	// MIXING THREAD
+	// ========================================
+	/**
+	 * Apply the queued commands, then mix the next frames
+	 *
+	 * @param out Receives frames * CHANNELS samples
+	 */
+	@Override
+	public void mix(short[] out, int frames) {
+		applyCommands();
+
+		int samples = frames * CHANNELS;
+		if (accumulator.length < samples) {
+			accumulator = new long[samples];
+		}
+		long[] acc = accumulator;
+		java.util.Arrays.fill(acc, 0, samples, 0L);
+
+		short[][] table = sounds;
+		int active = 0;
+		for (int v = 0; v < voiceSound.length; v++) {
+			int id = voiceSound[v];
+			if (id < 0) continue;
+			active++;
+			if (voicePaused[v]) continue;
+
+			short[] pcm = table[id];
+			int gain = voiceGain[v];
+			int pos = voicePosition[v];
+			int i = 0;
+			while (i < samples) {
+				int run = Math.min(samples - i, pcm.length - pos);
+				for (int k = 0; k < run; k++) {
+					acc[i + k] += pcm[pos + k] * gain;
+				}
+				i += run;
+				pos += run;
+				if (pos >= pcm.length) {
+					if (!voiceLoop[v] || pcm.length == 0) {
+						release(v);
+						break;
+					}
+					pos = 0;
+				}
+			}
+			voicePosition[v] = pos;
+		}
+		activeVoices = active;
+
+		// Master gain, back to 16 bits, clamped instead of wrapping
+		long master = masterGain;
+		for (int i = 0; i < samples; i++) {
+			long s = (acc[i] * master) >> (GAIN_BITS * 2); // At most voices * 2^43, no overflow
+			out[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, s));
+		}
+	}
+
+	private void applyCommands() {
+		int n = commands.drain(drained);
+		for (int c = 0; c < n; c++) {
+			long command = drained[c];
+			int op = (int) (command >>> 56);
+			int id = (int) (command >>> 48) & 0xFF;
+			int argument = (int) command;
+			switch (op) {
+				case CMD_PLAY:
+				case CMD_LOOP:
+					start(id, argument, op == CMD_LOOP);
+					break;
+				case CMD_STOP:
+					for (int v = 0; v < voiceSound.length; v++) {
+						if (voiceSound[v] == id) release(v);
+					}
+					break;
+				case CMD_STOP_ALL:
+					for (int v = 0; v < voiceSound.length; v++) {
+						if (voiceSound[v] >= 0) release(v);
+					}
+					break;
+				case CMD_PAUSE:
+				case CMD_RESUME:
+					for (int v = 0; v < voiceSound.length; v++) {
+						if (voiceSound[v] == id) voicePaused[v] = op == CMD_PAUSE;
+					}
+					break;
+				case CMD_MASTER_GAIN:
+					masterGain = argument;
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	// Pick a voice: this sound's oldest copy if it is at its limit, else a
+	// free voice, else the quietest voice of no higher priority
+	private void start(int id, int gain, boolean loop) {
+		short[][] table = sounds;
+		if (id >= table.length) return;
+		int voice = -1;
+		int free = -1;
+		int copies = 0;
+		int oldestCopy = -1;
+		int victim = -1;
+		long victimLoudness = Long.MAX_VALUE;
+		int priority = soundPriority[id];
+		for (int v = 0; v < voiceSound.length; v++) {
+			int other = voiceSound[v];
+			if (other < 0) {
+				if (free < 0) free = v;
+				continue;
+			}
+			if (other == id) {
+				copies++;
+				if (oldestCopy < 0 || voiceStarted[v] < voiceStarted[oldestCopy]) oldestCopy = v;
+			}
+			if (soundPriority[other] > priority) continue;
+			long loudness = ((long) soundPriority[other] << 40) + loudness(v, table[other]);
+			if (loudness < victimLoudness) {
+				victimLoudness = loudness;
+				victim = v;
+			}
+		}
+		if (copies >= soundMaxVoices[id]) {
+			voice = oldestCopy;
+		} else if (free >= 0) {
+			voice = free;
+		} else if (victim >= 0) {
+			voice = victim;
+		} else {
+			voiceRejects++;
+			return;
+		}
+		if (voiceSound[voice] >= 0) {
+			if (voiceSound[voice] == id) {
+				copyRestarts++;
+			} else {
+				voiceSteals++;
+			}
+			release(voice);
+		}
+		voiceSound[voice] = id;
+		voicePosition[voice] = 0;
+		voiceGain[voice] = gain;
+		voiceLoop[voice] = loop;
+		voicePaused[voice] = false;
+		voiceStarted[voice] = startCounter++;
+		playingCounts.incrementAndGet(id);
+	}
+
+	// Gain times the share of the sound still to play (loops never fade)
+	private long loudness(int v, short[] pcm) {
+		if (voiceLoop[v] || pcm.length == 0) {
+			return (long) voiceGain[v] << GAIN_BITS;
+		}
+		return (long) voiceGain[v] * (pcm.length - voicePosition[v]) * UNITY_GAIN / pcm.length;
+	}
+
+	private void release(int v) {
+		playingCounts.decrementAndGet(voiceSound[v]);
+		voiceSound[v] = -1;
+	}
+
+	// ========================================
+	// FORMAT CONVERSION
+	// ========================================
+	/**
+	 * Convert a decoded sound to interleaved 16-bit stereo at the mixer's rate
+	 * Mono is copied to both channels; other rates are resampled (nearest sample)
+	 *
+	 * @return null if the sample size isn't 8 or 16 bits
+	 */
+	public static short[] toMixFormat(PcmSound sound) {
+		AudioFormat format = sound.format;
+		int bits = format.getSampleSizeInBits();
+		int channels = format.getChannels();
+		if ((bits != 8 && bits != 16) || channels < 1) {
+			return null;
+		}
+		int bytesPerSample = bits / 8;
+		boolean bigEndian = format.isBigEndian();
+		double step = format.getSampleRate() / FORMAT.getSampleRate();
+		int frames = (int) (sound.frames / step);
+		short[] out = new short[frames * CHANNELS];
+		for (int f = 0; f < frames; f++) {
+			int sourceFrame = Math.min(sound.frames - 1, (int) (f * step));
+			for (int c = 0; c < CHANNELS; c++) {
+				int channel = Math.min(c, channels - 1);
+				int at = sourceFrame * format.getFrameSize() + channel * bytesPerSample;
+				short sample;
+				if (bits == 8) {
+					sample = (short) (sound.data[at] << 8);
+				} else if (bigEndian) {
+					sample = (short) ((sound.data[at] << 8) | (sound.data[at + 1] & 0xFF));
+				} else {
+					sample = (short) ((sound.data[at + 1] << 8) | (sound.data[at] & 0xFF));
+				}
+				out[f * CHANNELS + c] = sample;
+			}
+		}
+		return out;
+	}
+
+	// Stats
+	public int getActiveVoices() { return activeVoices; }
+	public int getMaxVoices() { return voiceSound.length; }
+	/** @return plays that took a voice from another sound */
+	public long getVoiceSteals() { return voiceSteals; }
+	/** @return plays that restarted one of the sound's own copies (usually at its limit) */
+	public long getCopyRestarts() { return copyRestarts; }
+	public long getVoiceRejects() { return voiceRejects; }
+	public long getDroppedCommands() { return commands.getDropped(); }
+}
@@ -3,29 +3,110 @@ package main;
 import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * SoundHandler - Manages all game audio and music
  * Allows loading, playing, and managing sound effects and background music
+ *
+ * Sound effects are decoded into memory once, when loaded, and each gets a
+ * small pool of clips opened on that data up front. Playing an effect
+ * rewinds a free clip from its pool (or the oldest one, if all are busy),
+ * so it does no file I/O, opens no lines and leaks none.
+ *
+ * Voices are limited twice: each effect has its own most-copies-at-once
+ * (its pool size) and all effects share a voice budget
+ * (-Dcatcher.voiceBudget=...). When the budget is used up, a new effect
+ * stops the quietest effect of no higher priority (the one with the least
+ * left to play), or is rejected if every playing effect outranks it.
+ * Priorities and limits are declared in entity.sounds.loadAllSounds.
+ *
+ * Music is never loaded whole: a MusicPlayer streams the current track
+ * a chunk at a time on its own line (-Dcatcher.musicBufferFrames=...), and
+ * switching tracks only queues a command for its thread. crossfadeMusic
+ * fades between tracks (-Dcatcher.musicFadeMillis=...), and music ducks
+ * under every effect played.
  */
-public class SoundHandler {
+public class SoundHandler implements AudioBackend {
 	
 	// Map to store file paths for sounds (to reload streams)
 	private Map<String, String> soundPathMap = new HashMap<>();
 	private Map<String, Clip> clipMap = new HashMap<>();
 	
+	// Sound effects: decoded data and pre-opened clips (-Dcatcher.clipsPerSound=...
+	// is the limit for effects loaded without one)
+	private Map<String, ClipPool> clipPools = new HashMap<>();
+	private ClipPool[] allPools = new ClipPool[0]; // clipPools' values, for scanning without iterators
+	private int clipsPerSound = Math.max(1, Integer.getInteger("catcher.clipsPerSound", 4));
+	private boolean noAudioLineReported = false;
+	
+	// Effects playing at once, across all sounds
+	protected final int voiceBudget = Math.max(1, Integer.getInteger("catcher.voiceBudget", 16));
+	
+	// Pool counters: free clip found / nothing to play on / busy clip restarted
+	// (its own or another sound's) / not played, every voice outranked it
+	private long poolHits = 0;
+	private long poolMisses = 0;
+	private long copyRestarts = 0;
+	private long voiceSteals = 0;
+	private long poolRejects = 0;
+	
+	// Music: streamed on its own line, started with the first track
+	protected final MusicPlayer musicPlayer = new MusicPlayer(2048);
+	private final MixerOutput musicOutput = new MixerOutput("music-output",
+			Integer.getInteger("catcher.musicBufferFrames", 4096), musicPlayer);
+	protected final Map<String, Integer> musicTracks = new HashMap<>();
+	private boolean musicOutputTried = false;
+	private final int musicFadeFrames = MusicPlayer.framesOf(Integer.getInteger("catcher.musicFadeMillis", 800));
+	
 	// Volume control (0.0 to 1.0)
 	private float masterVolume = 0.8f;
 	
 	/**
-	 * Load a sound file and store it with a custom name
+	 * Clips opened on one decoded sound effect
+	 * A clip counts as busy until the sound's length has passed since it was
+	 * started (isRunning() lags behind start(), so it can't tell)
+	 */
+	private static final class ClipPool {
+		final PcmSound sound;
+		final Clip[] clips;
+		final long[] startedAt;
+		final long lengthNanos;
+		final int priority;
+		
+		ClipPool(PcmSound sound, Clip[] clips, int priority) {
+			this.sound = sound;
+			this.clips = clips;
+			this.priority = priority;
+			this.startedAt = new long[clips.length];
+			this.lengthNanos = sound.lengthNanos();
+			Arrays.fill(startedAt, Long.MIN_VALUE / 2);
+		}
+	}
+	
+	/**
+	 * Load a sound effect and store it with a custom name
+	 * The file is decoded now and its clips are opened now, so playing it
+	 * later costs no I/O
 	 * 
 	 * @param soundName The name to reference this sound (e.g., "jump", "coin_collect")
 	 * @param filePath The path to the audio file (e.g., "res/sounds/jump.wav")
 	 */
 	public void loadSound(String soundName, String filePath) {
+		loadSound(soundName, filePath, PRIORITY_NORMAL, clipsPerSound);
+	}
+	
+	/**
+	 * Load a sound effect with its voice priority and limit
+	 * 
+	 * @param soundName The name to reference this sound
+	 * @param filePath The path to the audio file
+	 * @param priority PRIORITY_LOW, PRIORITY_NORMAL or PRIORITY_HIGH
+	 * @param maxVoices Most copies of this sound playing at once
+	 */
+	public void loadSound(String soundName, String filePath, int priority, int maxVoices) {
 		try {
 			File soundFile = new File(filePath);
 			if (!soundFile.exists()) {
@@ -35,38 +116,164 @@ public class SoundHandler {
 			
 			// Store the file path for later use
 			soundPathMap.put(soundName, filePath);
-			System.out.println("Sound loaded: " + soundName + " from " + filePath);
+			
+			// Decode once and open this sound's clips on the decoded data
+			PcmSound sound = PcmSound.decode(filePath);
+			ClipPool pool = new ClipPool(sound, openClips(sound, Math.max(1, maxVoices)), priority);
+			clipPools.put(soundName, pool);
+			allPools = clipPools.values().toArray(new ClipPool[0]);
+			System.out.println("Sound loaded: " + soundName + " from " + filePath + " (" + pool.clips.length + " clips)");
 		} catch (Exception e) {
 			System.out.println("Error loading sound '" + soundName + "': " + e.getMessage());
 		}
 	}
 	
+	/**
+	 * Load a music track and store it with a custom name
+	 * Tracks are long, so they are streamed when looped, never loaded whole
+	 * 
+	 * @param soundName The name to reference this track (e.g., "menu_music")
+	 * @param filePath The path to the audio file
+	 */
+	public void loadMusic(String soundName, String filePath) {
+		if (!new File(filePath).exists()) {
+			System.out.println("Sound file not found: " + filePath);
+			return;
+		}
+		soundPathMap.put(soundName, filePath);
+		musicTracks.put(soundName, musicPlayer.addTrack(filePath));
+		System.out.println("Music loaded: " + soundName + " from " + filePath);
+	}
+	
+	/**
+	 * Start the music line the first time a track plays
+	 * 
+	 * @return false if there is no line for it
+	 */
+	protected boolean startMusicOutput() {
+		if (!musicOutputTried) {
+			musicOutputTried = true;
+			musicPlayer.setGain(masterVolume);
+			musicOutput.start();
+		}
+		return musicOutput.isRunning();
+	}
+	
+	// Music playing on this handler's line, if any
+	protected void stopMusicOutput() {
+		musicPlayer.stop();
+		musicOutput.stop();
+		musicOutputTried = false;
+	}
+	
+	// Open up to count clips on the decoded sound (fewer if the mixer
+	// runs out of lines, none if there is no audio device)
+	private Clip[] openClips(PcmSound sound, int count) {
+		Clip[] clips = new Clip[count];
+		int opened = 0;
+		try {
+			for (; opened < clips.length; opened++) {
+				Clip clip = AudioSystem.getClip();
+				clip.open(sound.format, sound.data, 0, sound.data.length);
+				setVolume(clip, masterVolume);
+				clips[opened] = clip;
+			}
+		} catch (LineUnavailableException | IllegalArgumentException e) {
+			if (!noAudioLineReported) {
+				System.out.println("No audio line for sound effects: " + e.getMessage());
+				noAudioLineReported = true;
+			}
+		}
+		return Arrays.copyOf(clips, opened);
+	}
+	
 	/**
 	 * Play a sound effect once
 	 * 
 	 * @param soundName The name of the sound to play
 	 */
 	public void playSound(String soundName) {
-		try {
+		GameEvents.Sound event = GameEvents.Sound.start();
+		ClipPool pool = clipPools.get(soundName);
+		if (pool == null) {
 			if (!soundPathMap.containsKey(soundName)) {
 				System.out.println("Sound not found: " + soundName);
-				return;
 			}
-			
-			// Get the file path and create a fresh audio stream
-			String filePath = soundPathMap.get(soundName);
-			AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(filePath));
-			
-			// Create a new clip for each play
-			Clip clip = AudioSystem.getClip();
-			
-			// Open the audio stream and play
-			clip.open(audioStream);
-			setVolume(clip, masterVolume);
-			clip.start();
-		} catch (LineUnavailableException | IOException | UnsupportedAudioFileException e) {
-			System.out.println("Error playing sound '" + soundName + "': " + e.getMessage());
+			return;
 		}
+		if (pool.clips.length == 0) {
+			poolMisses++;
+			return;
+		}
+		
+		// A free clip if there is one, otherwise the one started longest ago
+		long now = System.nanoTime();
+		int slot = 0;
+		for (int i = 0; i < pool.clips.length; i++) {
+			if (pool.startedAt[i] < pool.startedAt[slot]) {
+				slot = i;
+			}
+		}
+		boolean stolen = now - pool.startedAt[slot] < pool.lengthNanos;
+		Clip clip = pool.clips[slot];
+		if (stolen) {
+			copyRestarts++;
+			clip.stop();
+		} else if (!makeRoom(pool.priority, now)) {
+			poolRejects++;
+			return;
+		} else {
+			poolHits++;
+		}
+		
+		clip.setFramePosition(0);
+		clip.start();
+		pool.startedAt[slot] = now;
+		musicPlayer.duck();
+		if (event != null && event.shouldCommit()) {
+			event.name = soundName;
+			event.looped = false;
+			event.stolen = stolen;
+			event.dataSize = pool.sound.data.length;
+			event.commit();
+		}
+	}
+	
+	// With the voice budget used up, stop the effect of no higher priority
+	// that has least left to play; false if every playing effect outranks it
+	private boolean makeRoom(int priority, long now) {
+		int playing = 0;
+		ClipPool victimPool = null;
+		int victimSlot = -1;
+		long victimLeft = Long.MAX_VALUE;
+		for (ClipPool pool : allPools) {
+			for (int i = 0; i < pool.clips.length; i++) {
+				long left = pool.lengthNanos - (now - pool.startedAt[i]);
+				if (left <= 0) {
+					continue;
+				}
+				playing++;
+				if (pool.priority > priority) {
+					continue;
+				}
+				if (victimPool == null || pool.priority < victimPool.priority
+						|| (pool.priority == victimPool.priority && left < victimLeft)) {
+					victimPool = pool;
+					victimSlot = i;
+					victimLeft = left;
+				}
+			}
+		}
+		if (playing < voiceBudget) {
+			return true;
+		}
+		if (victimPool == null) {
+			return false;
+		}
+		victimPool.clips[victimSlot].stop();
+		victimPool.startedAt[victimSlot] = Long.MIN_VALUE / 2;
+		voiceSteals++;
+		return true;
 	}
 	
 	/**
@@ -75,6 +282,20 @@ public class SoundHandler {
 	 * @param soundName The name of the sound to loop
 	 */
 	public void loopSound(String soundName) {
+		GameEvents.Sound event = GameEvents.Sound.start();
+		Integer track = musicTracks.get(soundName);
+		if (track != null) {
+			// Music streams from the file on the music thread
+			if (startMusicOutput()) {
+				musicPlayer.play(track);
+			}
+			if (event != null && event.shouldCommit()) {
+				event.name = soundName;
+				event.looped = true;
+				event.commit();
+			}
+			return;
+		}
 		try {
 			if (!soundPathMap.containsKey(soundName)) {
 				System.out.println("Sound not found: " + soundName);
@@ -102,17 +323,43 @@ public class SoundHandler {
 			clip.open(audioStream);
 			setVolume(clip, masterVolume);
 			clip.loop(Clip.LOOP_CONTINUOUSLY);
-		} catch (LineUnavailableException | IOException | UnsupportedAudioFileException e) {
+			if (event != null && event.shouldCommit()) {
+				event.name = soundName;
+				event.looped = true;
+				event.dataSize = new File(filePath).length();
+				event.commit();
+			}
+		} catch (LineUnavailableException | IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
 			System.out.println("Error looping sound '" + soundName + "': " + e.getMessage());
 		}
 	}
 	
+	/**
+	 * Switch music tracks, fading the new one in over the old one
+	 * 
+	 * @param soundName The music track to play from the top
+	 */
+	public void crossfadeMusic(String soundName) {
+		Integer track = musicTracks.get(soundName);
+		if (track == null) {
+			System.out.println("Sound not found: " + soundName);
+			return;
+		}
+		if (startMusicOutput()) {
+			musicPlayer.crossfade(track, musicFadeFrames);
+		}
+	}
+	
 	/**
 	 * Stop a sound that is currently playing
 	 * 
 	 * @param soundName The name of the sound to stop
 	 */
 	public void stopSound(String soundName) {
+		Integer track = musicTracks.get(soundName);
+		if (track != null) {
+			musicPlayer.stop(track);
+		}
 		if (clipMap.containsKey(soundName)) {
 			Clip clip = clipMap.get(soundName);
 			if (clip.isRunning()) {
@@ -125,6 +372,7 @@ public class SoundHandler {
 	 * Stop all currently playing sounds
 	 */
 	public void stopAllSounds() {
+		musicPlayer.stop();
 		for (Clip clip : clipMap.values()) {
 			if (clip.isRunning()) {
 				clip.stop();
@@ -138,6 +386,11 @@ public class SoundHandler {
      * @param soundName the name of the sound to pause
      */
     public void pauseSound(String soundName) {
+        Integer track = musicTracks.get(soundName);
+        if (track != null) {
+            musicPlayer.pause(track); // keeps the exact frame
+            return;
+        }
         if (clipMap.containsKey(soundName)) {
             Clip clip = clipMap.get(soundName);
             if (clip != null && clip.isRunning()) {
@@ -152,6 +405,11 @@ public class SoundHandler {
      * @param soundName the name of the sound to resume
      */
     public void resumeSound(String soundName) {
+        Integer track = musicTracks.get(soundName);
+        if (track != null) {
+            musicPlayer.resume(track);
+            return;
+        }
         if (clipMap.containsKey(soundName)) {
             Clip clip = clipMap.get(soundName);
             if (clip != null && !clip.isRunning()) {
@@ -183,10 +441,16 @@ public class SoundHandler {
 	 */
 	public void setMasterVolume(float volume) {
 		this.masterVolume = Math.max(0.0f, Math.min(1.0f, volume));
+		musicPlayer.setGain(masterVolume);
 		// Update all currently playing clips
 		for (Clip clip : clipMap.values()) {
 			setVolume(clip, masterVolume);
 		}
+		for (ClipPool pool : clipPools.values()) {
+			for (Clip clip : pool.clips) {
+				setVolume(clip, masterVolume);
+			}
+		}
 	}
 	
 	/**
@@ -215,6 +479,10 @@ public class SoundHandler {
 	 * @return true if the sound is playing, false otherwise
 	 */
 	public boolean isSoundPlaying(String soundName) {
+		Integer track = musicTracks.get(soundName);
+		if (track != null) {
+			return musicPlayer.isPlaying(track);
+		}
 		if (clipMap.containsKey(soundName)) {
 			return clipMap.get(soundName).isRunning();
 		}
@@ -234,9 +502,16 @@ public class SoundHandler {
 			clipMap.remove(soundName);
 		}
 		
+		ClipPool pool = clipPools.remove(soundName);
+		if (pool != null) {
+			closeAll(pool.clips);
+			allPools = clipPools.values().toArray(new ClipPool[0]);
+		}
+		
 		if (soundPathMap.containsKey(soundName)) {
 			soundPathMap.remove(soundName);
 		}
+		musicTracks.remove(soundName);
 	}
 	
 	/**
@@ -249,7 +524,55 @@ public class SoundHandler {
 			clip.close();
 		}
 		clipMap.clear();
+		for (ClipPool pool : clipPools.values()) {
+			closeAll(pool.clips);
+		}
+		clipPools.clear();
+		allPools = new ClipPool[0];
 		soundPathMap.clear();
+		musicTracks.clear();
+		stopMusicOutput();
+		musicPlayer.closePreloaded();
+	}
+	
+	/**
+	 * Open the next loop of the playing music ahead of its end, so the
+	 * output thread never has to (runs after every tick)
+	 */
+	@Override
+	public void endTick() {
+		musicPlayer.prepareLoops();
+	}
+	
+	private static void closeAll(Clip[] clips) {
+		for (Clip clip : clips) {
+			clip.stop();
+			clip.close();
+		}
+	}
+	
+	// ===== CLIP POOL STATS =====
+	
+	/** @return plays that found a free clip */
+	public long getPoolHits() { return poolHits; }
+	/** @return plays dropped because the sound has no clips (no audio line) */
+	public long getPoolMisses() { return poolMisses; }
+	
+	// ===== VOICE LIMIT STATS =====
+	
+	/** @return plays that stopped another sound's clip to stay within the voice budget */
+	public long getVoiceSteals() { return voiceSteals; }
+	/** @return plays that restarted one of the sound's own clips still playing */
+	public long getCopyRestarts() { return copyRestarts; }
+	/** @return plays dropped because every playing voice outranked them */
+	public long getVoiceRejects() { return poolRejects; }
+	
+	/**
+	 * @return one line of audio counters for the frame stats
+	 */
+	public String getStatsSummary() {
+		return String.format("audio clips: hits %d  misses %d  restarts %d  steals %d  rejects %d",
+				poolHits, poolMisses, copyRestarts, voiceSteals, poolRejects);
 	}
 
 } 
\ No newline at end of file
@@ -1,13 +1,14 @@
 package main;
 
+import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
+import entity.FallingEntity;
+import entity.SpriteCache;
 
 /**
  * UIRenderer is responsible for rendering all UI elements and screens in the game.
@@ -23,7 +24,33 @@ public class UIRenderer {
 	// Reference to the main game panel and state manager
 	private GamePanel gamePanel;
 	private GameStateManager stateManager;
-	private SoundHandler soundHandler;
+	private AudioBackend soundHandler;
+	
+	// Fonts, colors and strokes are made once here, not every frame
+	private static final Font HUD_FONT = new Font("Arial", Font.BOLD, 24);
+	private static final Font HIGHSCORE_FONT = new Font("Arial", Font.BOLD, 72);
+	private static final Font HINT_FONT = new Font("Arial", Font.PLAIN, 24);
+	private static final Font FINAL_SCORE_FONT = new Font("Arial", Font.BOLD, 40);
+	private static final Font FINAL_HIGHSCORE_FONT = new Font("Arial", Font.PLAIN, 32);
+	private static final Color PAUSE_OVERLAY = new Color(0, 0, 0, 100);
+	private static final Color EMPTY_HEART = new Color(0, 0, 0, 0);
+	private static final BasicStroke EMPTY_HEART_STROKE = new BasicStroke(2);
+	
+	// Frame-time overlay style
+	private static final Font STATS_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	private static final Color STATS_BACKGROUND = new Color(0, 0, 0, 170);
+	
+	// Score texts, rebuilt only when the number changes
+	private int shownScore = -1;
+	private String scoreText;
+	private String finalScoreText;
+	private int shownHighscore = -1;
+	private String highscoreText;
+	private String finalHighscoreText;
+	
+	// The simulation tick being drawn and how far to interpolate into it (0..1)
+	private RenderSnapshot snapshot = new RenderSnapshot();
+	private float interpolation = 1.0f;
 	
 	// Button objects for different menus
 	private ImageButton playButton;
@@ -89,36 +116,36 @@ public class UIRenderer {
 	private void loadButtonImages() {
 		try {
 			// === BACKGROUND AND DECORATIVE IMAGES ===
-			background = ImageIO.read(new File("res/maps/bg.png"));
-			cat = ImageIO.read(new File("res/maps/smile.png"));
-			dead = ImageIO.read(new File("res/maps/dead.png"));
-			sleepcat = ImageIO.read(new File("res/maps/sleepause.png"));
-			catcher = ImageIO.read(new File("res/maps/catcher.png"));
-			highScoreBufferedImage =ImageIO.read(new File("res/maps/highscorebig.png"));
-			gameOverBufferedImage	 =ImageIO.read(new File("res/maps/gameover.png"));
+			background = AssetLoader.readImage("res/maps/bg.png");
+			cat = AssetLoader.readImage("res/maps/smile.png");
+			dead = AssetLoader.readImage("res/maps/dead.png");
+			sleepcat = AssetLoader.readImage("res/maps/sleepause.png");
+			catcher = AssetLoader.readImage("res/maps/catcher.png");
+			highScoreBufferedImage =AssetLoader.readImage("res/maps/highscorebig.png");
+			gameOverBufferedImage	 =AssetLoader.readImage("res/maps/gameover.png");
 
 			// === MAIN MENU BUTTON IMAGES ===
-			playButtonNormal = ImageIO.read(new File("res/maps/play.png"));
-			playButtonHighlighted = ImageIO.read(new File("res/maps/play.png"));
-			highscoreButtonNormal = ImageIO.read(new File("res/maps/highscore.png"));
-			highscoreButtonHighlighted = ImageIO.read(new File("res/maps/highscore.png"));
-			pauseBufferedImage = ImageIO.read(new File("res/maps/pause.png"));
+			playButtonNormal = AssetLoader.readImage("res/maps/play.png");
+			playButtonHighlighted = AssetLoader.readImage("res/maps/play.png");
+			highscoreButtonNormal = AssetLoader.readImage("res/maps/highscore.png");
+			highscoreButtonHighlighted = AssetLoader.readImage("res/maps/highscore.png");
+			pauseBufferedImage = AssetLoader.readImage("res/maps/pause.png");
 			
 			// === PAUSE MENU BUTTON IMAGES ===
-			continueButtonNormal = ImageIO.read(new File("res/maps/continue.png"));
-			continueButtonHighlighted = ImageIO.read(new File("res/maps/continue.png"));
-			pauseMenuButtonNormal = ImageIO.read(new File("res/maps/menu.png"));
-			pauseMenuButtonHighlighted = ImageIO.read(new File("res/maps/menu.png"));
+			continueButtonNormal = AssetLoader.readImage("res/maps/continue.png");
+			continueButtonHighlighted = AssetLoader.readImage("res/maps/continue.png");
+			pauseMenuButtonNormal = AssetLoader.readImage("res/maps/menu.png");
+			pauseMenuButtonHighlighted = AssetLoader.readImage("res/maps/menu.png");
 			
 			// === GAME OVER MENU BUTTON IMAGES ===
-			retryButtonNormal = ImageIO.read(new File("res/maps/start.again.png"));
-			retryButtonHighlighted = ImageIO.read(new File("res/maps/start.again.png"));
-			gameoverMenuButtonNormal = ImageIO.read(new File("res/maps/menu.png"));
-			gameoverMenuButtonHighlighted = ImageIO.read(new File("res/maps/menu.png"));
+			retryButtonNormal = AssetLoader.readImage("res/maps/start.again.png");
+			retryButtonHighlighted = AssetLoader.readImage("res/maps/start.again.png");
+			gameoverMenuButtonNormal = AssetLoader.readImage("res/maps/menu.png");
+			gameoverMenuButtonHighlighted = AssetLoader.readImage("res/maps/menu.png");
 			
 			// === HIGHSCORE BACK BUTTON IMAGES ===
-			backButtonNormal = ImageIO.read(new File("res/maps/back.png"));
-			backButtonHighlighted = ImageIO.read(new File("res/maps/back.png"));
+			backButtonNormal = AssetLoader.readImage("res/maps/back.png");
+			backButtonHighlighted = AssetLoader.readImage("res/maps/back.png");
 			
 			// === CREATE MAIN MENU BUTTONS ===
 			// Positioned vertically centered with spacing
@@ -165,6 +192,18 @@ public class UIRenderer {
 		}
 	}
 	
+	/**
+	 * Set the simulation snapshot to draw on the next render, and how far
+	 * between its previous and current tick moving objects should be drawn
+	 * 
+	 * @param snapshot Published simulation state
+	 * @param alpha 0 = previous tick, 1 = current tick
+	 */
+	public void setFrame(RenderSnapshot snapshot, float alpha) {
+		this.snapshot = snapshot;
+		this.interpolation = alpha;
+	}
+	
 	/**
 	 * Main render method that determines which screen to draw based on game state
 	 * Called every frame to update all UI elements
@@ -172,7 +211,7 @@ public class UIRenderer {
 	 * @param g2 Graphics2D object for drawing
 	 */
 	public void render(Graphics2D g2) {
-		int gameState = stateManager.getGameState();
+		int gameState = snapshot.gameState;
 		
 		// === RENDER BASED ON CURRENT GAME STATE ===
 		if (gameState == GameStateManager.MENU_STATE) {
@@ -185,7 +224,7 @@ public class UIRenderer {
 			drawGame(g2);
 			
 			// Draw pause menu overlay on top if game is paused
-			if (stateManager.isPaused()) {
+			if (snapshot.paused) {
 				drawPauseMenu(g2);
 			}
 		}
@@ -237,11 +276,11 @@ public class UIRenderer {
 		
 		// === HIGHSCORE VALUE ===
 		// Display the current highest score achieved
+		updateScoreTexts();
 		g2.setColor(Color.WHITE);
-		g2.setFont(new Font("Arial", Font.BOLD, 72));
-		String scoreText = String.valueOf(stateManager.getHighscore());
-		int scoreX = (gamePanel.screenWidth - g2.getFontMetrics().stringWidth(scoreText)) / 2;
-		g2.drawString(scoreText, scoreX+20, 300);
+		g2.setFont(HIGHSCORE_FONT);
+		int scoreX = (gamePanel.screenWidth - g2.getFontMetrics().stringWidth(highscoreText)) / 2;
+		g2.drawString(highscoreText, scoreX+20, 300);
 		
 		// === BACK BUTTON ===
 		backButton.draw(g2);
@@ -250,7 +289,7 @@ public class UIRenderer {
 		
 		// === INSTRUCTIONS ===
 		g2.setColor(Color.GRAY);
-		g2.setFont(new Font("Arial", Font.PLAIN, 24));
+		g2.setFont(HINT_FONT);
 		g2.drawString("Click button or press SPACE to go back", 60, gamePanel.screenHeight - 30);
 	}
 	
@@ -262,18 +301,23 @@ public class UIRenderer {
 	 */
 	private void drawGame(Graphics2D g2) {
 		// === DRAW GAME WORLD ===
-		gamePanel.player.draw(g2);             // Draw player
+		gamePanel.player.draw(g2, snapshot, interpolation); // Draw player
 		
 		// Draw all falling entities (obstacles/collectibles)
-		for (int i = 0; i < gamePanel.fallingEntities.size(); i++) {
-			gamePanel.fallingEntities.get(i).draw(g2);
+		for (int i = 0; i < snapshot.entityCount; i++) {
+			BufferedImage sprite = SpriteCache.get(FallingEntity.spriteFor(snapshot.entityType[i]));
+			if (sprite != null) {
+				g2.drawImage(sprite, snapshot.entityX(i, interpolation), snapshot.entityY(i, interpolation),
+						FallingEntity.DRAW_SIZE, FallingEntity.DRAW_SIZE, null);
+			}
 		}
 		
 		// === DRAW HUD ===
 		// Display current score in top-left corner
+		updateScoreTexts();
 		g2.setColor(Color.WHITE);
-		g2.setFont(new Font("Arial", Font.BOLD, 24));
-		g2.drawString("Score: " + gamePanel.player.score, 20, 40);
+		g2.setFont(HUD_FONT);
+		g2.drawString(scoreText, 20, 40);
 		
 		// Display remaining lives as heart icons
 		drawHearts(g2);
@@ -289,7 +333,7 @@ public class UIRenderer {
 		// === SEMI-TRANSPARENT OVERLAY ===
 		// Creates a dark overlay without blocking the game underneath
 		
-		g2.setColor(new Color(0, 0, 0, 100));
+		g2.setColor(PAUSE_OVERLAY);
 		g2.fillRect(0, 0, gamePanel.screenWidth, gamePanel.screenHeight);
 		g2.drawImage(pauseBufferedImage, (gamePanel.screenWidth - 350)/2, 25, 400, 200, null);
 		g2.drawImage(sleepcat, ((gamePanel.screenWidth - 220)/2)-20, 200, 300, 200, null);
@@ -328,18 +372,17 @@ public class UIRenderer {
 		
 		// === SCORE DISPLAY ===
 		// Shows the score achieved in the just-finished game
+		updateScoreTexts();
 		g2.setColor(Color.WHITE);
-		g2.setFont(new Font("Arial", Font.BOLD, 40));
-		String scoreText = "Your Score: " + gamePanel.player.score;
-		int scoreX = (gamePanel.screenWidth - g2.getFontMetrics().stringWidth(scoreText)) / 2;
-		g2.drawString(scoreText, scoreX+20, 350);
+		g2.setFont(FINAL_SCORE_FONT);
+		int scoreX = (gamePanel.screenWidth - g2.getFontMetrics().stringWidth(finalScoreText)) / 2;
+		g2.drawString(finalScoreText, scoreX+20, 350);
 		
 		// === HIGHSCORE DISPLAY ===
 		// Shows the best score achieved across all games
-		g2.setFont(new Font("Arial", Font.PLAIN, 32));
-		String highscoreText = "Highscore: " + stateManager.getHighscore();
-		int highscoreX = (gamePanel.screenWidth - g2.getFontMetrics().stringWidth(highscoreText)) / 2;
-		g2.drawString(highscoreText, highscoreX+20, 400);
+		g2.setFont(FINAL_HIGHSCORE_FONT);
+		int highscoreX = (gamePanel.screenWidth - g2.getFontMetrics().stringWidth(finalHighscoreText)) / 2;
+		g2.drawString(finalHighscoreText, highscoreX+20, 400);
 		
 		// === RETRY BUTTON ===
 		// Use the retry button object that was created in loadButtonImages()
@@ -375,19 +418,54 @@ public class UIRenderer {
 			int heartY = startY;
 			
 			// Draw filled heart if player has this life, otherwise draw empty space
-			if (i < gamePanel.player.lives && gamePanel.player.heart != null) {
+			if (i < snapshot.lives && gamePanel.player.heart != null) {
 				g2.drawImage(gamePanel.player.heart, heartX, heartY, heartSize, heartSize, null);
 			} else {
 				// Draw transparent/empty space for lost lives
-				g2.setColor(new Color(0,0,0,0));
+				g2.setColor(EMPTY_HEART);
 				g2.fillRect(heartX, heartY, heartSize, heartSize);
-				g2.setColor(new Color(0,0,0,0));
-				g2.setStroke(new java.awt.BasicStroke(2));
+				g2.setStroke(EMPTY_HEART_STROKE);
 				g2.drawRect(heartX, heartY, heartSize, heartSize);
 			}
 		}
 	}
 	
+	/**
+	 * Draws the frame-time overlay (toggled with F3) in the top-left corner
+	 * 
+	 * @param g2 Graphics2D object for drawing
+	 * @param lines Text lines from FrameStats.overlayLines
+	 */
+	public void drawFrameStats(Graphics2D g2, String[] lines) {
+		g2.setFont(STATS_FONT);
+		int lineHeight = g2.getFontMetrics().getHeight();
+		int width = 0;
+		for (String line : lines) {
+			width = Math.max(width, g2.getFontMetrics().stringWidth(line));
+		}
+		
+		g2.setColor(STATS_BACKGROUND);
+		g2.fillRect(5, 5, width + 16, lines.length * lineHeight + 12);
+		g2.setColor(Color.white);
+		for (int i = 0; i < lines.length; i++) {
+			g2.drawString(lines[i], 13, 11 + (i + 1) * lineHeight);
+		}
+	}
+	
+	// Rebuild the score texts if the score or highscore changed
+	private void updateScoreTexts() {
+		if (snapshot.score != shownScore) {
+			shownScore = snapshot.score;
+			scoreText = "Score: " + shownScore;
+			finalScoreText = "Your Score: " + shownScore;
+		}
+		if (snapshot.highscore != shownHighscore) {
+			shownHighscore = snapshot.highscore;
+			highscoreText = String.valueOf(shownHighscore);
+			finalHighscoreText = "Highscore: " + shownHighscore;
+		}
+	}
+	
 	// ===== BUTTON GETTER METHODS =====
 	// These methods provide access to button objects for input handling
 	// Used by InputHandler to detect mouse clicks on buttons